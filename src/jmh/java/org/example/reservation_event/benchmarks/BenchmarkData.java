@@ -0,0 +1,139 @@
+package org.example.reservation_event.benchmarks;
+
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.Enums.EventStatut;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.ReservationEventApplication;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeux de données communs aux benchmarks : entités en mémoire, ou base H2 embarquée peuplée
+ * via le contexte Spring de l'application (sans serveur web).
+ */
+final class BenchmarkData {
+
+    private static final EventCategorie[] CATEGORIES = EventCategorie.values();
+    private static final String[] VILLES = {"Casablanca", "Rabat", "Marrakech", "Tanger", "Fès"};
+
+    private BenchmarkData() {
+    }
+
+    static User user(String email, UserRole role) {
+        User user = User.builder()
+                .nom("Bench")
+                .prenom(email.substring(0, email.indexOf('@')))
+                .email(email)
+                .password("benchmark-password")
+                .role(role)
+                .telephone("0600000000")
+                .dateInscription(LocalDateTime.now())
+                .build();
+        user.setActif(true);
+        return user;
+    }
+
+    /**
+     * Événement publié dans le futur ; seatsReserved est cohérent avec reservationsPerEvent réservations d'une place
+     */
+    static Event event(int index, User organisateur, int reservationsPerEvent) {
+        LocalDateTime debut = LocalDateTime.now().plusDays(1 + index % 60).withHour(20).withMinute(0);
+        return Event.builder()
+                .titre("Événement benchmark " + index)
+                .description("Description de l'événement " + index)
+                .categorie(CATEGORIES[index % CATEGORIES.length])
+                .dateDebut(debut)
+                .dateFin(debut.plusHours(3))
+                .lieu("Salle " + index)
+                .ville(VILLES[index % VILLES.length])
+                .capaciteMax(Math.max(reservationsPerEvent * 2, 100))
+                .prixUnitaire(50.0 + index % 200)
+                .organisateur(organisateur)
+                .statut(EventStatut.PUBLIE)
+                .seatsReserved(reservationsPerEvent)
+                .build();
+    }
+
+    static Reservation reservation(long sequence, Event event, User client) {
+        return Reservation.builder()
+                .evenement(event)
+                .utilisateur(client)
+                .nombrePlaces(1)
+                .montantTotal(event.getPrixUnitaire())
+                .statut(sequence % 4 == 0 ? ReservationStatut.EN_ATTENTE : ReservationStatut.CONFIRMEE)
+                // Codes explicites : le générateur aléatoire EVT-XXXXX entre en collision au-delà de quelques centaines de lignes
+                .codeReservation(String.format("B%08d", sequence))
+                .build();
+    }
+
+    static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(ReservationEventApplication.class)
+                .web(WebApplicationType.NONE)
+                // application-benchmark.properties : tâches @Scheduled et envoi d'emails désactivés
+                .profiles("benchmark")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "--vaadin.launch-browser=false",
+                        "--spring.mail.properties.mail.debug=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.vaadin=WARN",
+                        "--logging.level.org.springframework.security=WARN");
+    }
+
+    /**
+     * Insère eventCount événements publiés et reservationsPerEvent réservations par événement, par lots
+     *
+     * @return les événements persistés (détachés)
+     */
+    static List<Event> populate(ConfigurableApplicationContext context, int eventCount, int reservationsPerEvent) {
+        EntityManager em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        List<Event> events = new ArrayList<>(eventCount);
+        try {
+            em.getTransaction().begin();
+            User organisateur = user("organisateur@bench.ma", UserRole.ORGANIZER);
+            em.persist(organisateur);
+
+            List<Long> clientIds = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                User client = user("client" + i + "@bench.ma", UserRole.CLIENT);
+                em.persist(client);
+                clientIds.add(client.getId());
+            }
+
+            long sequence = 0;
+            for (int i = 0; i < eventCount; i++) {
+                Event event = event(i, em.getReference(User.class, organisateur.getId()), reservationsPerEvent);
+                em.persist(event);
+                events.add(event);
+
+                Event eventRef = em.getReference(Event.class, event.getId());
+                for (int r = 0; r < reservationsPerEvent; r++) {
+                    User client = em.getReference(User.class, clientIds.get((int) (sequence % clientIds.size())));
+                    em.persist(reservation(sequence++, eventRef, client));
+                    if (sequence % 500 == 0) {
+                        em.flush();
+                        em.clear();
+                        eventRef = em.getReference(Event.class, event.getId());
+                    }
+                }
+            }
+            em.flush();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        return events;
+    }
+}
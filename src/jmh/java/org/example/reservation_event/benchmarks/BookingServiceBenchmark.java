@@ -0,0 +1,106 @@
+package org.example.reservation_event.benchmarks;
+
+import org.example.reservation_event.Enums.EventStatut;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.ServicesImplimentation.EventServiceImpl;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.repositories.EventRepository;
+import org.example.reservation_event.repositories.UserRepository;
+import org.example.reservation_event.services.EventService;
+import org.example.reservation_event.services.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche, événements populaires et réservation à travers les services Spring, sur H2 embarquée.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+
+    @Param({"100", "1000"})
+    private int eventCount;
+
+    @Param({"10", "100"})
+    private int reservationsPerEvent;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private EventServiceImpl eventServiceTarget;
+    private ReservationService reservationService;
+    private EventRepository eventRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private List<Event> events;
+    private User client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication();
+        events = BenchmarkData.populate(context, eventCount, reservationsPerEvent);
+
+        eventService = context.getBean(EventService.class);
+        eventServiceTarget = AopTestUtils.getTargetObject(eventService);
+        reservationService = context.getBean(ReservationService.class);
+        eventRepository = context.getBean(EventRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        client = context.getBean(UserRepository.class).findAll().stream()
+                .filter(u -> u.getRole() == UserRole.CLIENT)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Event> searchEvents() {
+        return eventService.searchEvents("benchmark", "Rabat", LocalDateTime.now(), null,
+                50.0, 200.0, EventStatut.PUBLIE, null,
+                PageRequest.of(0, 20, Sort.by("dateDebut")));
+    }
+
+    @Benchmark
+    public List<Event> popularEventsCached() {
+        return eventService.getPopularEvents(6);
+    }
+
+    @Benchmark
+    public List<Event> popularEventsUncached() {
+        // Vide le cache court pour mesurer la requête de classement elle-même
+        ReflectionTestUtils.setField(eventServiceTarget, "popularEventsCache", null);
+        return eventService.getPopularEvents(6);
+    }
+
+    /**
+     * Réservation complète (UPDATE conditionnel du compteur + INSERT), annulée en fin d'invocation
+     * pour garder la base dans le même état d'une itération à l'autre.
+     */
+    @Benchmark
+    public Object createReservation() {
+        Long eventId = events.get(ThreadLocalRandom.current().nextInt(events.size())).getId();
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            Event event = eventRepository.findById(eventId).orElseThrow();
+            return reservationService.createReservation(event, client, 1, null);
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.reservation_event.benchmarks;
+
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.EventDTO;
+import org.example.reservation_event.mappers.EventMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Méthodes utilitaires de Event et EventMapper.toDTO, sans base de données.
+ * Les réservations sont attachées à la collection de l'événement pour mesurer
+ * l'effet de leur volume (nul depuis le compteur seatsReserved).
+ *
+ * Les méthodes baseline* rejouent l'ancien Event.getPlacesReservees() (parcours des réservations
+ * et println par réservation) pour comparer avant/après dans un même run. Les lignes vont dans un
+ * PrintStream synchronisé sans destination : le coût mesuré exclut l'écriture console, c'est un minimum.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBenchmark {
+
+    @Param({"100", "1000"})
+    private int eventCount;
+
+    @Param({"10", "10000"})
+    private int reservationsPerEvent;
+
+    private List<Event> events;
+    private EventMapper eventMapper;
+    private PrintStream legacyOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User organisateur = BenchmarkData.user("organisateur@bench.ma", UserRole.ORGANIZER);
+        User client = BenchmarkData.user("client@bench.ma", UserRole.CLIENT);
+        eventMapper = new EventMapper();
+        legacyOut = new PrintStream(OutputStream.nullOutputStream(), true);
+
+        events = new ArrayList<>(eventCount);
+        long sequence = 0;
+        for (int i = 0; i < eventCount; i++) {
+            Event event = BenchmarkData.event(i, organisateur, reservationsPerEvent);
+            // Une seule liste partagée : le volume compte, pas le nombre d'objets distincts
+            if (i == 0) {
+                for (int r = 0; r < reservationsPerEvent; r++) {
+                    event.getReservations().add(BenchmarkData.reservation(sequence++, event, client));
+                }
+            } else {
+                event.setReservations(events.get(0).getReservations());
+            }
+            events.add(event);
+        }
+    }
+
+    @Benchmark
+    public void placesDisponibles(Blackhole bh) {
+        for (Event event : events) {
+            bh.consume(event.getPlacesDisponibles());
+        }
+    }
+
+    @Benchmark
+    public void reservableAndTauxRemplissage(Blackhole bh) {
+        for (Event event : events) {
+            bh.consume(event.isReservable());
+            bh.consume(event.getTauxRemplissage());
+        }
+    }
+
+    @Benchmark
+    public void mapperToDTO(Blackhole bh) {
+        for (Event event : events) {
+            EventDTO dto = eventMapper.toDTO(event);
+            bh.consume(dto);
+        }
+    }
+
+    // Référence : getPlacesDisponibles() avant le compteur seatsReserved
+    @Benchmark
+    public void baselinePlacesDisponibles(Blackhole bh) {
+        for (Event event : events) {
+            bh.consume(event.getCapaciteMax() - legacyPlacesReservees(event));
+        }
+    }
+
+    // Référence : isReservable() + getTauxRemplissage(), deux parcours de la collection par événement
+    @Benchmark
+    public void baselineReservableAndTauxRemplissage(Blackhole bh) {
+        for (Event event : events) {
+            bh.consume(event.getCapaciteMax() - legacyPlacesReservees(event) > 0);
+            bh.consume((double) legacyPlacesReservees(event) / event.getCapaciteMax() * 100);
+        }
+    }
+
+    /**
+     * Copie de l'ancien Event.getPlacesReservees() (journalisation comprise)
+     */
+    private int legacyPlacesReservees(Event event) {
+        List<Reservation> reservations = event.getReservations();
+        legacyOut.println("=== CALCUL PLACES RÉSERVÉES ===");
+        legacyOut.println("Nombre total de réservations: " + reservations.size());
+
+        int total = 0;
+        for (Reservation r : reservations) {
+            if (r.getStatut() == ReservationStatut.CONFIRMEE ||
+                    r.getStatut() == ReservationStatut.EN_ATTENTE) {
+                legacyOut.println("  - Comptée: " + r.getCodeReservation() +
+                        " - " + r.getNombrePlaces() + " places - " + r.getStatut());
+                total += r.getNombrePlaces();
+            } else {
+                legacyOut.println("  - Exclue: " + r.getCodeReservation() +
+                        " - " + r.getNombrePlaces() + " places - " + r.getStatut());
+            }
+        }
+        legacyOut.println("Total places réservées: " + total);
+        legacyOut.println("=== FIN CALCUL ===");
+        return total;
+    }
+}
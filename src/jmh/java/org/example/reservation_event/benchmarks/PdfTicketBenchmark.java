@@ -0,0 +1,59 @@
+package org.example.reservation_event.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.ServicesImplimentation.PdfTicketService;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération d'un billet PDF (billets par seconde).
+ * baselineGenerateTicketPdf mesure l'ancien générateur (LegacyPdfTicketService) sur la même réservation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfTicketBenchmark {
+
+    private PdfTicketService pdfTicketService;
+    private LegacyPdfTicketService legacyPdfTicketService;
+    private Reservation reservation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pdfTicketService = new PdfTicketService();
+        legacyPdfTicketService = new LegacyPdfTicketService();
+        ReflectionTestUtils.setField(pdfTicketService, "operationMetrics",
+                new OperationMetrics(new SimpleMeterRegistry()));
+
+        User organisateur = BenchmarkData.user("organisateur@bench.ma", UserRole.ORGANIZER);
+        User client = BenchmarkData.user("client@bench.ma", UserRole.CLIENT);
+        Event event = BenchmarkData.event(1, organisateur, 10);
+        event.setId(1L);
+        reservation = BenchmarkData.reservation(1, event, client);
+        reservation.setId(1L);
+        reservation.setCommentaire("Placement près de la scène si possible");
+        reservation.setDateReservation(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public byte[] generateTicketPdf() throws IOException {
+        return pdfTicketService.generateTicketPdf(reservation);
+    }
+
+    @Benchmark
+    public byte[] baselineGenerateTicketPdf() throws IOException {
+        return legacyPdfTicketService.generateTicketPdf(reservation);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.reservation_event.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservation_event.Enums.ExportFormat;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.ServicesImplimentation.ReservationSheetExportService;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Export CSV / Excel d'un million de réservations (durée d'un export complet).
+ * Les lignes sont générées à la volée : la mesure porte sur l'écriture, et la mémoire reste
+ * constante si l'export ne garde pas les lignes déjà écrites (à vérifier avec -prof gc).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx256m"})
+@State(Scope.Benchmark)
+public class ReservationSheetExportBenchmark {
+
+    private static final int EVENTS = 100;
+
+    @Param({"CSV", "XLSX"})
+    public ExportFormat format;
+
+    @Param({"1000000"})
+    public long rows;
+
+    private ReservationSheetExportService exportService;
+    private Event[] events;
+    private User[] clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        exportService = new ReservationSheetExportService();
+        ReflectionTestUtils.setField(exportService, "operationMetrics",
+                new OperationMetrics(new SimpleMeterRegistry()));
+
+        User organisateur = BenchmarkData.user("organisateur@bench.ma", UserRole.ORGANIZER);
+        events = new Event[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = BenchmarkData.event(i, organisateur, 10);
+        }
+        clients = new User[1000];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = BenchmarkData.user("client" + i + "@bench.ma", UserRole.CLIENT);
+        }
+    }
+
+    @Benchmark
+    public int export() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        Stream<Reservation> stream = LongStream.range(0, rows).mapToObj(seq -> {
+            Reservation reservation = BenchmarkData.reservation(seq,
+                    events[(int) (seq % events.length)], clients[(int) (seq % clients.length)]);
+            reservation.setId(seq + 1);
+            reservation.setDateReservation(now);
+            return reservation;
+        });
+        return exportService.write(stream, format, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.reservation_event.Enums;
+
+/**
+ * Cycle de vie d'un email de la table email_outbox
+ */
+public enum EmailOutboxStatut {
+    EN_ATTENTE,   // à envoyer dès que prochaineTentative est atteinte
+    EN_COURS,     // pris par un worker ; redevient éligible si le bail (prochaineTentative) expire
+    ENVOYE,
+    ECHEC         // abandonné après le nombre maximal de tentatives
+}
@@ -0,0 +1,9 @@
+package org.example.reservation_event.Enums;
+
+/**
+ * Types d'emails envoyés via la table email_outbox
+ */
+public enum EmailOutboxType {
+    RESERVATION_CONFIRMATION,
+    RESERVATION_CANCELLATION
+}
@@ -0,0 +1,219 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import io.micrometer.core.instrument.Timer;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.config.TicketExportConfig;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.example.reservation_event.repositories.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Génération groupée des billets d'un événement, écrite directement dans le flux de téléchargement :
+ * un seul PDF multi-pages ou une archive ZIP avec un PDF par réservation.
+ *
+ * Les billets sont rendus en parallèle par PdfTicketService puis écrits dans l'ordre des réservations.
+ * Les réservations sont lues par tranches et au plus RENDER_WINDOW billets rendus attendent d'être écrits,
+ * la mémoire utilisée ne dépend donc pas du nombre de billets.
+ */
+@Service
+public class BulkTicketService {
+
+    // Billets générés pour les réservations actives uniquement
+    private static final List<ReservationStatut> TICKET_STATUTS =
+            List.of(ReservationStatut.EN_ATTENTE, ReservationStatut.CONFIRMEE);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PdfTicketService pdfTicketService;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Autowired
+    @Qualifier("ticketRenderExecutor")
+    private ThreadPoolTaskExecutor ticketRenderExecutor;
+
+    /**
+     * Écrit les billets de l'événement dans un seul PDF (une page par billet).
+     * Le flux n'est pas fermé.
+     *
+     * @return Nombre de billets écrits
+     */
+    public int writeTicketsPdf(Long eventId, OutputStream out) throws IOException {
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        try {
+            PdfWriter writer = new PdfWriter(out);
+            writer.setCloseStream(false);
+            PdfDocument merged = new PdfDocument(writer);
+            PdfMerger merger = new PdfMerger(merged);
+
+            int count = renderTickets(eventId, ticket -> {
+                PdfDocument source = new PdfDocument(new PdfReader(new ByteArrayInputStream(ticket.pdf())));
+                try {
+                    merger.merge(source, 1, source.getNumberOfPages());
+                    // Pages copiées écrites tout de suite dans le flux, rien n'est conservé du billet source
+                    merged.flushCopiedObjects(source);
+                } finally {
+                    source.close();
+                }
+            });
+
+            if (count == 0) {
+                // Un PDF sans page est invalide
+                new Document(merged).add(new Paragraph("Aucun billet à générer pour cet événement."));
+            }
+            merged.close();
+
+            operationMetrics.increment("pdf.tickets_bulk.tickets", count, "format", "pdf");
+            return count;
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            operationMetrics.stop(sample, "pdf.tickets_bulk", error, "format", "pdf");
+        }
+    }
+
+    /**
+     * Écrit les billets de l'événement dans une archive ZIP (billet_CODE.pdf par réservation).
+     * Le flux n'est pas fermé.
+     *
+     * @return Nombre de billets écrits
+     */
+    public int writeTicketsZip(Long eventId, OutputStream out) throws IOException {
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            // Les PDF sont déjà compressés
+            zip.setLevel(Deflater.BEST_SPEED);
+
+            int count = renderTickets(eventId, ticket -> {
+                zip.putNextEntry(new ZipEntry("billet_" + ticket.code() + ".pdf"));
+                zip.write(ticket.pdf());
+                zip.closeEntry();
+            });
+            zip.finish();
+
+            operationMetrics.increment("pdf.tickets_bulk.tickets", count, "format", "zip");
+            return count;
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            operationMetrics.stop(sample, "pdf.tickets_bulk", error, "format", "zip");
+        }
+    }
+
+    /**
+     * Génère le nom de fichier du téléchargement groupé
+     */
+    public String generateFileName(Event event, String extension) {
+        String sanitizedTitle = event.getTitre().replaceAll("[^a-zA-Z0-9]", "_");
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        return "billets_" + sanitizedTitle + "_" + timestamp + "." + extension;
+    }
+
+    // ========================================
+    // MÉTHODES PRIVÉES
+    // ========================================
+
+    /**
+     * Lit les réservations par tranches, rend les billets en parallèle et les transmet
+     * dans l'ordre à l'écriture, avec au plus RENDER_WINDOW rendus en attente
+     */
+    private int renderTickets(Long eventId, TicketSink sink) throws IOException {
+        Deque<CompletableFuture<RenderedTicket>> window = new ArrayDeque<>();
+        Long afterId = 0L;
+        int count = 0;
+
+        try {
+            List<Reservation> chunk;
+            do {
+                chunk = reservationRepository.findEventChunk(
+                        eventId, TICKET_STATUTS, afterId, PageRequest.of(0, TicketExportConfig.CHUNK_SIZE));
+
+                for (Reservation reservation : chunk) {
+                    window.add(CompletableFuture.supplyAsync(() -> render(reservation), ticketRenderExecutor));
+                    if (window.size() >= TicketExportConfig.RENDER_WINDOW) {
+                        sink.write(await(window.poll()));
+                        count++;
+                    }
+                }
+
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == TicketExportConfig.CHUNK_SIZE);
+
+            while (!window.isEmpty()) {
+                sink.write(await(window.poll()));
+                count++;
+            }
+            return count;
+        } finally {
+            // Après une erreur (client déconnecté, rendu en échec), les rendus restants sont abandonnés
+            window.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private RenderedTicket render(Reservation reservation) {
+        try {
+            return new RenderedTicket(reservation.getCodeReservation(), pdfTicketService.generateTicketPdf(reservation));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RenderedTicket await(CompletableFuture<RenderedTicket> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private record RenderedTicket(String code, byte[] pdf) {
+    }
+
+    @FunctionalInterface
+    private interface TicketSink {
+        void write(RenderedTicket ticket) throws IOException;
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.Enums.EventStatut;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.dtos.MonthlyRevenueDTO;
+import org.example.reservation_event.dtos.TopRatedEventDTO;
+import org.example.reservation_event.repositories.EventRepository;
+import org.example.reservation_event.repositories.ReservationRepository;
+import org.example.reservation_event.repositories.ReviewRepository;
+import org.example.reservation_event.repositories.UserRepository;
+import org.example.reservation_event.services.DashboardMetricsService;
+import org.example.reservation_event.services.RevenueRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Indicateurs du dashboard admin calculés par des requêtes GROUP BY :
+ * chaque méthode ne remonte que quelques lignes agrégées, jamais les tables complètes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DashboardMetricsServiceImpl implements DashboardMetricsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Override
+    public Map<UserRole, Long> countUsersByRole() {
+        Map<UserRole, Long> result = new EnumMap<>(UserRole.class);
+        for (Object[] row : userRepository.countGroupByRole()) {
+            result.put((UserRole) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<EventStatut, Long> countEventsByStatus() {
+        Map<EventStatut, Long> result = new EnumMap<>(EventStatut.class);
+        for (Object[] row : eventRepository.countGroupByStatut()) {
+            result.put((EventStatut) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<ReservationStatut, Long> countReservationsByStatus() {
+        Map<ReservationStatut, Long> result = new EnumMap<>(ReservationStatut.class);
+        for (Object[] row : reservationRepository.countGroupByStatut()) {
+            result.put((ReservationStatut) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+
+    @Override
+    public double getTotalConfirmedRevenue() {
+        return revenueRollupService.getTotalRevenue();
+    }
+
+    @Override
+    public List<MonthlyRevenueDTO> getRevenueByMonth() {
+        return revenueRollupService.getRevenueByMonth();
+    }
+
+    @Override
+    public Map<String, Long> countReservationsByCategory() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Object[] row : reservationRepository.countActiveReservationsByCategory()) {
+            result.merge(((EventCategorie) row[0]).getLabel(), (Long) row[1], Long::sum);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Integer, Long> getRatingHistogram() {
+        Map<Integer, Long> result = new TreeMap<>();
+        for (Object[] row : reviewRepository.countGroupByRating()) {
+            result.put((Integer) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+
+    @Override
+    public List<TopRatedEventDTO> getTopRatedEvents(long minReviews, int limit) {
+        return reviewRepository.findTopRatedEventSummaries(minReviews, PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import org.example.reservation_event.Enums.EmailOutboxStatut;
+import org.example.reservation_event.Enums.EmailOutboxType;
+import org.example.reservation_event.classes.EmailOutbox;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.repositories.EmailOutboxRepository;
+import org.example.reservation_event.services.EmailOutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    static final int MAX_TENTATIVES = 8;
+
+    // Un email pris mais jamais acquitté (crash pendant l'envoi) redevient éligible après ce délai
+    private static final Duration BAIL = Duration.ofMinutes(5);
+    private static final Duration PREMIER_DELAI = Duration.ofSeconds(30);
+    private static final Duration DELAI_MAX = Duration.ofHours(1);
+
+    private static final Set<EmailOutboxStatut> ELIGIBLES =
+            EnumSet.of(EmailOutboxStatut.EN_ATTENTE, EmailOutboxStatut.EN_COURS);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Override
+    public void enqueueReservationConfirmation(Reservation reservation) {
+        enqueue(EmailOutboxType.RESERVATION_CONFIRMATION, reservation, null);
+    }
+
+    @Override
+    public void enqueueReservationCancellation(Reservation reservation, String reason) {
+        String raison = reason != null && !reason.trim().isEmpty() ? reason.trim() : null;
+        enqueue(EmailOutboxType.RESERVATION_CANCELLATION, reservation, raison);
+    }
+
+    private void enqueue(EmailOutboxType type, Reservation reservation, String raison) {
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .type(type)
+                .reservationId(reservation.getId())
+                .raison(raison)
+                .build());
+    }
+
+    @Override
+    public List<EmailOutbox> claimDue(int max) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = emailOutboxRepository.findDueIds(ELIGIBLES, now, PageRequest.of(0, max));
+
+        List<Long> claimed = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            if (emailOutboxRepository.claim(id, EmailOutboxStatut.EN_COURS, ELIGIBLES, now, now.plus(BAIL)) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed.isEmpty() ? List.of() : emailOutboxRepository.findAllById(claimed);
+    }
+
+    @Override
+    public void markSent(Long outboxId) {
+        emailOutboxRepository.findById(outboxId).ifPresent(entry -> {
+            entry.setStatut(EmailOutboxStatut.ENVOYE);
+            entry.setDateEnvoi(LocalDateTime.now());
+            entry.setDerniereErreur(null);
+        });
+    }
+
+    @Override
+    public void markFailed(Long outboxId, String error) {
+        emailOutboxRepository.findById(outboxId).ifPresent(entry -> {
+            entry.setDerniereErreur(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            if (entry.getTentatives() >= MAX_TENTATIVES) {
+                entry.setStatut(EmailOutboxStatut.ECHEC);
+            } else {
+                entry.setStatut(EmailOutboxStatut.EN_ATTENTE);
+                entry.setProchaineTentative(LocalDateTime.now().plus(backoff(entry.getTentatives())));
+            }
+        });
+    }
+
+    // 30 s, 1 min, 2 min, ... plafonné à 1 h
+    static Duration backoff(int tentatives) {
+        Duration delai = PREMIER_DELAI.multipliedBy(1L << Math.min(Math.max(tentatives - 1, 0), 10));
+        return delai.compareTo(DELAI_MAX) > 0 ? DELAI_MAX : delai;
+    }
+}
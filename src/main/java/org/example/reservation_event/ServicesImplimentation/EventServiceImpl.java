@@ -3,22 +3,42 @@ package org.example.reservation_event.ServicesImplimentation;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.Enums.ReservationStatut;
 import org.example.reservation_event.Exceptions.*;
 import org.example.reservation_event.dtos.EventDTO;
 import org.example.reservation_event.dtos.EventLightDTO;
+import org.example.reservation_event.dtos.EventStatsDTO;
+import org.example.reservation_event.dtos.OrganizerStatsDTO;
 import org.example.reservation_event.dtos.ReservationDTO;
 import org.example.reservation_event.dtos.ReservationSummaryDTO;
 import org.example.reservation_event.mappers.EventMapper;
 import org.example.reservation_event.mappers.ReservationMapper;
 import org.example.reservation_event.repositories.EventRepository;
+import org.example.reservation_event.repositories.EventSpecifications;
 import org.example.reservation_event.repositories.ReservationRepository;
 import org.example.reservation_event.services.EventService;
+import org.example.reservation_event.services.RevenueRollupService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -27,12 +47,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class EventServiceImpl implements EventService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventServiceImpl.class);
+
+    private static final Duration POPULAR_EVENTS_TTL = Duration.ofSeconds(30);
+
     private final EventRepository eventRepository;
     private final ReservationRepository reservationRepository;
+    private volatile PopularEventsCache popularEventsCache;
+
+    // Seul le classement (ids ordonnés) est partagé entre les sessions, jamais les entités
+    private record PopularEventsCache(int limit, Instant loadedAt, List<Long> ids) {
+    }
+
     @Autowired
     private ReservationMapper reservationMapper;
     @Autowired
     private EventMapper eventMapper;
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    @PersistenceContext
+    private EntityManager entityManager;
     // Récupérer les réservations d'un utilisateur avec DTOs
     public List<ReservationSummaryDTO> getReservationsByUserAsDTO(User user) {
         List<Reservation> reservations = reservationRepository.findByUtilisateur(user);
@@ -77,6 +111,7 @@ public class EventServiceImpl implements EventService {
             // Vérifier que l'événement existe
             Event existingEvent = eventRepository.findById(event.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Événement non trouvé"));
+            applyCapacity(event);
 
             // Mettre à jour uniquement les champs modifiables
             existingEvent.setTitre(event.getTitre());
@@ -94,6 +129,8 @@ public class EventServiceImpl implements EventService {
             // Sauvegarder
             return eventRepository.save(existingEvent);
 
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("❌ Erreur lors de la mise à jour: " + e.getMessage());
             e.printStackTrace();
@@ -116,32 +153,64 @@ public class EventServiceImpl implements EventService {
             throw new BusinessException("Événement ne peut pas être annulé");
         }
         event.setStatut(EventStatut.ANNULE);
-        event.getReservations().forEach(res -> res.setStatut(ReservationStatut.ANNULEE));
-        return eventRepository.save(event);
+        // Statut écrit en premier : l'UPDATE verrouille la ligne (attend une réservation en cours),
+        // puis reserveSeats échoue sur statut <> 'PUBLIE' et aucune réservation n'échappe à cancelAllByEvent
+        Event saved = eventRepository.saveAndFlush(event);
+        revenueRollupService.removeConfirmedForEvent(saved);
+        reservationRepository.cancelAllByEvent(saved.getId());
+        eventRepository.resetSeats(saved.getId());
+        return saved;
     }
 
     @Override
     public void deleteEvent(Event event) throws BusinessException {
-        if (!event.getReservations().isEmpty()) {
+        if (reservationRepository.existsByEvenementId(event.getId())) {
             throw new BusinessException("Impossible de supprimer un événement avec des réservations");
         }
         eventRepository.delete(event);
     }
 
     @Override
-    public List<Event> searchEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
-                                    Double minPrice, Double maxPrice, EventStatut statut) {
-        return eventRepository.findAll().stream()
-                .filter(e -> statut == null || e.getStatut() == statut)
-                .filter(e -> keyword == null || e.getTitre().toLowerCase().contains(keyword.toLowerCase()))
-                .filter(e -> location == null ||
-                        e.getLieu().toLowerCase().contains(location.toLowerCase()) ||
-                        e.getVille().toLowerCase().contains(location.toLowerCase()))
-                .filter(e -> start == null || !e.getDateDebut().isBefore(start))
-                .filter(e -> end == null || !e.getDateFin().isAfter(end))
-                .filter(e -> minPrice == null || e.getPrixUnitaire() >= minPrice)
-                .filter(e -> maxPrice == null || e.getPrixUnitaire() <= maxPrice)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<Event> searchEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
+                                    Double minPrice, Double maxPrice, EventStatut statut,
+                                    EventCategorie categorie, Pageable pageable) {
+        // Filtrage, tri et pagination exécutés par la base
+        return eventRepository.findAll(
+                EventSpecifications.search(keyword, location, start, end, minPrice, maxPrice, statut, categorie),
+                pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> findEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
+                                  Double minPrice, Double maxPrice, EventStatut statut,
+                                  EventCategorie categorie, Pageable pageable) {
+        // Une page sans COUNT (findAll(spec, pageable) en lance un à chaque appel) : pour les grilles
+        // paresseuses, dont le total vient de countEvents une fois par changement de filtre
+        Specification<Event> spec = EventSpecifications.search(keyword, location, start, end,
+                minPrice, maxPrice, statut, categorie);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+        Root<Event> root = query.from(Event.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
+                            Double minPrice, Double maxPrice, EventStatut statut, EventCategorie categorie) {
+        return eventRepository.count(
+                EventSpecifications.search(keyword, location, start, end, minPrice, maxPrice, statut, categorie));
     }
 
     @Override
@@ -153,102 +222,39 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Event> getPopularEvents(int limit) {
-        LocalDateTime now = LocalDateTime.now();
+        // Cache court du classement : la page d'accueil est très consultée et il peut avoir quelques secondes de retard.
+        // Le GROUP BY coûteux n'est rejoué qu'à expiration ; les événements sont relus à chaque appel
+        // (une seule requête IN), chaque session reçoit donc ses propres instances
+        PopularEventsCache cached = popularEventsCache;
+        List<Long> ids;
+        if (cached != null && cached.limit() == limit
+                && cached.loadedAt().plus(POPULAR_EVENTS_TTL).isAfter(Instant.now())) {
+            ids = cached.ids();
+        } else {
+            // Classement fait par la base (GROUP BY + ORDER BY + LIMIT)
+            ids = List.copyOf(eventRepository.findPopularEventIds(LocalDateTime.now(), PageRequest.of(0, limit)));
+            popularEventsCache = new PopularEventsCache(limit, Instant.now(), ids);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
-        return eventRepository.findAll().stream()
-                // Filter only published events
-                .filter(e -> e.getStatut() == EventStatut.PUBLIE)
-                // Filter events that haven't passed yet
-                .filter(e -> e.getDateDebut().isAfter(now))
-                // Filter events that are still reservable
-                .filter(e -> e.isReservable())
-                // Filter events that still have available places
-                .filter(e -> e.getPlacesDisponibles() > 0)
-                // Sort by popularity (number of confirmed reservations)
-                .sorted((e1, e2) -> Integer.compare(
-                        e2.getReservations().stream()
-                                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                                .mapToInt(r -> r.getNombrePlaces())
-                                .sum(),
-                        e1.getReservations().stream()
-                                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                                .mapToInt(r -> r.getNombrePlaces())
-                                .sum()
-                ))
-                .limit(limit)
-                .collect(Collectors.toList());
+        Map<Long, Event> byId = eventRepository.findAllWithOrganisateurByIdIn(ids).stream()
+                .collect(Collectors.toMap(Event::getId, e -> e));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
-    public Map<String, Object> getOrganizerStats(User organizer) {
-        Map<String, Object> stats = new HashMap<>();
-
-        try {
-            // Get ALL events for this organizer (not just published)
-            List<Event> allEvents = eventRepository.findByOrganisateur(organizer);
-
-            // Debug logging
-            System.out.println("DEBUG: Found " + allEvents.size() + " events for organizer: " + organizer.getId());
-            allEvents.forEach(e -> System.out.println("  - " + e.getTitre() + " | Status: " + e.getStatut()));
-
-            int totalEvents = allEvents.size();
-
-            // Count published events
-            int publishedEvents = (int) allEvents.stream()
-                    .filter(e -> e.getStatut() == EventStatut.PUBLIE)
-                    .count();
-
-            // Count draft events
-            int draftEvents = (int) allEvents.stream()
-                    .filter(e -> e.getStatut() == EventStatut.BROUILLON)
-                    .count();
-
-            // Get ALL reservations from ALL events (not just published)
-            int totalReservations = 0;
-            double totalRevenue = 0.0;
-
-            for (Event event : allEvents) {
-                if (event.getReservations() != null) {
-                    List<Reservation> confirmedReservations = event.getReservations().stream()
-                            .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                            .collect(Collectors.toList());
-
-                    totalReservations += confirmedReservations.size();
-                    totalRevenue += confirmedReservations.stream()
-                            .mapToDouble(Reservation::getMontantTotal)
-                            .sum();
-                }
-            }
-
-            // Put all stats
-            stats.put("totalEvents", totalEvents);
-            stats.put("publishedEvents", publishedEvents);
-            stats.put("draftEvents", draftEvents);
-            stats.put("totalReservations", totalReservations);
-            stats.put("totalRevenue", totalRevenue);
-
-            // Debug output
-            System.out.println("DEBUG Stats:");
-            System.out.println("  totalEvents: " + totalEvents);
-            System.out.println("  publishedEvents: " + publishedEvents);
-            System.out.println("  draftEvents: " + draftEvents);
-            System.out.println("  totalReservations: " + totalReservations);
-            System.out.println("  totalRevenue: " + totalRevenue);
-
-        } catch (Exception e) {
-            System.err.println("ERROR in getOrganizerStats: " + e.getMessage());
-            e.printStackTrace();
-
-            // Fallback
-            stats.put("totalEvents", 0);
-            stats.put("publishedEvents", 0);
-            stats.put("draftEvents", 0);
-            stats.put("totalReservations", 0);
-            stats.put("totalRevenue", 0.0);
-        }
-
-        return stats;
+    @Transactional(readOnly = true)
+    public OrganizerStatsDTO getOrganizerStats(User organizer) {
+        // Une seule requête d'agrégation, sans charger les événements ni leurs réservations
+        OrganizerStatsDTO stats = eventRepository.findOrganizerStats(organizer.getId());
+        return stats != null ? stats : OrganizerStatsDTO.empty();
     }
 
     @Override
@@ -267,15 +273,24 @@ public class EventServiceImpl implements EventService {
     public int getPlacesDisponibles(Event event) {
         if (event == null) return 0;
 
-        Integer placesReservees = reservationRepository.countTotalPlacesReserved(event);
+        // Compteur maintenu par ReservationServiceImpl (places CONFIRMEE + EN_ATTENTE)
+        Integer placesReservees = event.getSeatsReserved();
         if (placesReservees == null) placesReservees = 0;
 
         return event.getCapaciteMax() - placesReservees;
     }
+    @Override
+    public double getRevenuTotal(Event event) {
+        if (event == null) return 0.0;
+
+        Double revenu = reservationRepository.sumConfirmedRevenueByEvent(event.getId());
+        return revenu != null ? revenu : 0.0;
+    }
+
     @Override
     public Optional<EventDTO> getEventDTOById(Long id) {
         return eventRepository.findById(id)
-                .map(eventMapper::toDTO);
+                .map(event -> eventMapper.toDTO(event, loadStats(event)));
     }
 
     @Override
@@ -283,9 +298,23 @@ public class EventServiceImpl implements EventService {
         return eventRepository.findById(id)
                 .map(event -> {
                     Integer placesDisponibles = getPlacesDisponibles(event);
-                    return eventMapper.toReservationFormDTO(event, placesDisponibles);
+                    return eventMapper.toReservationFormDTO(event, loadStats(event), placesDisponibles);
                 });
     }
+
+    // Agrégats SQL d'un événement (places, revenu) sans charger ses réservations
+    private EventStatsDTO loadStats(Event event) {
+        EventStatsDTO stats = reservationRepository.findStatsByEventIds(List.of(event.getId())).stream()
+                .findFirst()
+                .orElse(EventStatsDTO.empty(event.getId()));
+
+        // Mode diagnostic (DEBUG) : compare le compteur seatsReserved au recalcul SQL, une ligne par événement
+        if (logger.isDebugEnabled() && stats.getPlacesReservees() != event.getPlacesReservees()) {
+            logger.debug("Compteur de places divergent pour l'événement {} : seatsReserved={}, réservations actives={}",
+                    event.getId(), event.getPlacesReservees(), stats.getPlacesReservees());
+        }
+        return stats;
+    }
     @Override
     @Transactional(readOnly = true)
     public List<EventLightDTO> getAllClientEvents(
@@ -327,10 +356,14 @@ public class EventServiceImpl implements EventService {
             // If it's a new event (no ID), set creation date
             if (event.getId() == null) {
                 event.setDateCreation(LocalDateTime.now());
+            } else {
+                applyCapacity(event);
             }
 
             return eventRepository.save(event);
 
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error saving event: " + e.getMessage());
             throw new RuntimeException("Erreur lors de la sauvegarde de l'événement", e);
@@ -342,9 +375,25 @@ public class EventServiceImpl implements EventService {
         return eventRepository.findPastEventsWithReservationAndNoReview(userId);
     }
     public Event updateEvent(Event event) {
+        applyCapacity(event);
         event.setDateModification(LocalDateTime.now());
         return eventRepository.save(event);
     }
+
+    /**
+     * Applique la capacité d'un événement existant avant sa sauvegarde.
+     * Refusée si elle est inférieure aux places déjà réservées (UPDATE conditionnel sur seatsReserved,
+     * atomique face à une réservation concurrente) ; à appeler avant de modifier l'entité chargée.
+     */
+    private void applyCapacity(Event event) {
+        if (event.getId() == null || event.getCapaciteMax() == null) {
+            return;
+        }
+        if (eventRepository.updateCapacity(event.getId(), event.getCapaciteMax()) == 0) {
+            throw new BusinessException("La capacité (" + event.getCapaciteMax()
+                    + ") ne peut pas être inférieure au nombre de places déjà réservées");
+        }
+    }
     @Override
     public List<Event> getEventsByOrganizer(User organizer) {
         try {
@@ -1,23 +1,28 @@
 package org.example.reservation_event.ServicesImplimentation;
 
-import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import io.micrometer.core.instrument.Timer;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.ReservationTotalsDTO;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.example.reservation_event.services.ReservationService;
+import org.example.reservation_event.utils.PdfStyles;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -36,59 +41,102 @@ public class PdfReservationExportService {
     private static final DateTimeFormatter DATETIME_FORMATTER =
             DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH'h'mm", new Locale("fr", "FR"));
 
-    // Couleurs
-    private static final DeviceRgb PRIMARY_COLOR = new DeviceRgb(79, 70, 229); // #4f46e5
-    private static final DeviceRgb SUCCESS_COLOR = new DeviceRgb(5, 150, 105); // #059669
-    private static final DeviceRgb SECONDARY_COLOR = new DeviceRgb(100, 116, 139); // #64748b
+    // Couleurs (partagées, immuables)
+    private static final DeviceRgb PRIMARY_COLOR = PdfStyles.PRIMARY;
+    private static final DeviceRgb SUCCESS_COLOR = PdfStyles.SUCCESS;
+    private static final DeviceRgb SECONDARY_COLOR = PdfStyles.GRAY;
+
+    // Lignes lues en base puis écrites dans le tableau avant de libérer la tranche (export en flux)
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Autowired
+    private ReservationService reservationService;
 
     /**
-     * Génère un PDF contenant toutes les réservations d'un événement
+     * Écrit le PDF des réservations filtrées d'un événement directement dans un flux (téléchargement).
+     * Les réservations sont lues par tranches et le tableau est vidé au fur et à mesure (tableau
+     * "large" iText) : la mémoire utilisée ne dépend pas du nombre de lignes. Le flux n'est pas fermé.
      *
      * @param event L'événement concerné
-     * @param reservations Liste des réservations à inclure dans le PDF
-     * @param totalPlaces Nombre total de places réservées
-     * @param totalRevenue Revenu total généré
-     * @return Tableau d'octets contenant le PDF généré
-     * @throws IOException En cas d'erreur lors de la génération
+     * @param search Texte recherché (null = aucun filtre)
+     * @param statut Statut filtré (null = tous)
+     * @param out Flux de sortie
+     * @return Nombre de réservations écrites
+     * @throws IOException En cas d'erreur lors de l'écriture
      */
-    public byte[] generateReservationsPdf(
+    public int writeReservationsPdf(
             Event event,
-            List<Reservation> reservations,
-            int totalPlaces,
-            double totalRevenue
+            String search,
+            ReservationStatut statut,
+            OutputStream out
+    ) throws IOException {
+
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        try {
+            return streamReservationsPdf(event, search, statut, out);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            operationMetrics.stop(sample, "pdf.reservations_export_stream", error);
+        }
+    }
+
+    private int streamReservationsPdf(
+            Event event,
+            String search,
+            ReservationStatut statut,
+            OutputStream out
     ) throws IOException {
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // Totaux calculés en base, avant le tableau
+        ReservationTotalsDTO totals = reservationService.getEventReservationTotals(event.getId(), search, statut);
 
-        PdfWriter writer = new PdfWriter(baos);
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
         PdfDocument pdfDoc = new PdfDocument(writer);
         Document document = new Document(pdfDoc);
 
-        try {
-            // Fonts
-            PdfFont titleFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-            PdfFont normalFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        PdfFont titleFont = PdfStyles.bold();
+        PdfFont normalFont = PdfStyles.regular();
 
-            // ===== HEADER =====
-            addHeader(document, titleFont, normalFont);
+        addHeader(document, titleFont, normalFont);
+        addEventInfo(document, event, titleFont, normalFont);
+        addStatisticsSummary(document, totals.getTotal(), totals.getPlaces(), totals.getRevenu(),
+                totals.getConfirmees());
 
-            // ===== EVENT INFO =====
-            addEventInfo(document, event, titleFont, normalFont);
+        // Tableau "large" : les lignes déjà mises en page sont écrites dans le flux à chaque flush()
+        Table table = createReservationsTable(document, titleFont);
+        document.add(table);
 
-            // ===== STATISTICS SUMMARY =====
-            addStatisticsSummary(document, reservations, totalPlaces, totalRevenue, normalFont);
+        int count = 0;
+        Long afterId = 0L;
+        List<Reservation> chunk;
+        do {
+            chunk = reservationService.searchEventReservationsAfter(
+                    event.getId(), search, statut, afterId, EXPORT_CHUNK_SIZE);
 
-            // ===== RESERVATIONS TABLE =====
-            addReservationsTable(document, reservations, titleFont, normalFont);
+            for (Reservation r : chunk) {
+                addReservationRow(table, r, normalFont);
+            }
+            table.flush();
 
-            // ===== FOOTER =====
-            addFooter(document, reservations.size(), totalPlaces, totalRevenue, normalFont);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+                count += chunk.size();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
 
-        } finally {
-            document.close();
-        }
+        table.complete();
 
-        return baos.toByteArray();
+        addFooter(document, count, (int) totals.getPlaces(), totals.getRevenu(), normalFont);
+        document.close();
+
+        return count;
     }
 
     /**
@@ -178,40 +226,28 @@ public class PdfReservationExportService {
 
     private void addStatisticsSummary(
             Document document,
-            List<Reservation> reservations,
-            int totalPlaces,
+            long totalReservations,
+            long totalPlaces,
             double totalRevenue,
-            PdfFont normalFont
-    ) throws IOException {
-
-        long confirmedCount = reservations.stream()
-                .filter(r -> r.getStatut().name().equals("CONFIRMEE"))
-                .count();
-
-        long pendingCount = reservations.stream()
-                .filter(r -> r.getStatut().name().equals("EN_ATTENTE"))
-                .count();
-
-        long canceledCount = reservations.stream()
-                .filter(r -> r.getStatut().name().equals("ANNULEE"))
-                .count();
+            long confirmedCount
+    ) {
 
         // Tableau de statistiques
         Table statsTable = new Table(UnitValue.createPercentArray(new float[]{1, 1, 1, 1}));
         statsTable.setWidth(UnitValue.createPercentValue(100));
         statsTable.setMarginBottom(20);
 
-        addStatCell(statsTable, "Total Réservations", String.valueOf(reservations.size()), PRIMARY_COLOR);
+        addStatCell(statsTable, "Total Réservations", String.valueOf(totalReservations), PRIMARY_COLOR);
         addStatCell(statsTable, "Places Réservées", String.valueOf(totalPlaces), SUCCESS_COLOR);
-        addStatCell(statsTable, "Revenus", String.format("%.2f DH", totalRevenue), new DeviceRgb(245, 158, 11));
-        addStatCell(statsTable, "Confirmées", String.valueOf(confirmedCount), new DeviceRgb(139, 92, 246));
+        addStatCell(statsTable, "Revenus", String.format("%.2f DH", totalRevenue), PdfStyles.WARNING);
+        addStatCell(statsTable, "Confirmées", String.valueOf(confirmedCount), PdfStyles.VIOLET);
 
         document.add(statsTable);
     }
 
     private void addStatCell(Table table, String label, String value, DeviceRgb color) {
         Cell cell = new Cell()
-                .setBackgroundColor(new DeviceRgb(248, 250, 252))
+                .setBackgroundColor(PdfStyles.LIGHT_BG)
                 .setPadding(10)
                 .setTextAlignment(TextAlignment.CENTER);
 
@@ -230,12 +266,10 @@ public class PdfReservationExportService {
         table.addCell(cell);
     }
 
-    private void addReservationsTable(
-            Document document,
-            List<Reservation> reservations,
-            PdfFont titleFont,
-            PdfFont normalFont
-    ) throws IOException {
+    /**
+     * Titre de section et tableau des réservations avec ses en-têtes (répétés sur chaque page)
+     */
+    private Table createReservationsTable(Document document, PdfFont titleFont) {
 
         // Titre de section
         Paragraph tableTitle = new Paragraph("Détails des Réservations")
@@ -245,7 +279,7 @@ public class PdfReservationExportService {
         document.add(tableTitle);
 
         // Tableau
-        Table table = new Table(UnitValue.createPercentArray(new float[]{2f, 3f, 4f, 1.5f, 2f, 3f, 2f}));
+        Table table = new Table(UnitValue.createPercentArray(new float[]{2f, 3f, 4f, 1.5f, 2f, 3f, 2f}), true);
         table.setWidth(UnitValue.createPercentValue(100));
 
         // En-têtes
@@ -263,22 +297,21 @@ public class PdfReservationExportService {
             table.addHeaderCell(cell);
         }
 
-        // Données
-        for (Reservation r : reservations) {
-            User user = r.getUtilisateur();
-            String clientName = user != null ? user.getPrenom() + " " + user.getNom() : "N/A";
-            String email = user != null ? user.getEmail() : "N/A";
-
-            addDataCell(table, r.getCodeReservation(), normalFont, false);
-            addDataCell(table, clientName, normalFont, false);
-            addDataCell(table, email, normalFont, false);
-            addDataCell(table, String.valueOf(r.getNombrePlaces()), normalFont, true);
-            addDataCell(table, String.format("%.2f DH", r.getMontantTotal()), normalFont, false);
-            addDataCell(table, formatDateTime(r.getDateReservation()), normalFont, false);
-            addStatusCell(table, r.getStatut().name());
-        }
+        return table;
+    }
 
-        document.add(table);
+    private void addReservationRow(Table table, Reservation r, PdfFont normalFont) {
+        User user = r.getUtilisateur();
+        String clientName = user != null ? user.getPrenom() + " " + user.getNom() : "N/A";
+        String email = user != null ? user.getEmail() : "N/A";
+
+        addDataCell(table, r.getCodeReservation(), normalFont, false);
+        addDataCell(table, clientName, normalFont, false);
+        addDataCell(table, email, normalFont, false);
+        addDataCell(table, String.valueOf(r.getNombrePlaces()), normalFont, true);
+        addDataCell(table, String.format("%.2f DH", r.getMontantTotal()), normalFont, false);
+        addDataCell(table, formatDateTime(r.getDateReservation()), normalFont, false);
+        addStatusCell(table, r.getStatut());
     }
 
     private void addDataCell(Table table, String content, PdfFont font, boolean center) {
@@ -291,24 +324,18 @@ public class PdfReservationExportService {
         table.addCell(cell);
     }
 
-    private void addStatusCell(Table table, String status) {
+    private void addStatusCell(Table table, ReservationStatut status) {
         DeviceRgb bgColor;
-        switch (status) {
-            case "CONFIRMEE":
-                bgColor = new DeviceRgb(5, 150, 105);
-                break;
-            case "EN_ATTENTE":
-                bgColor = new DeviceRgb(245, 158, 11);
-                break;
-            case "ANNULEE":
-                bgColor = new DeviceRgb(239, 68, 68);
-                break;
-            default:
-                bgColor = SECONDARY_COLOR;
+        if (status == null) {
+            bgColor = SECONDARY_COLOR;
+        } else if (status == ReservationStatut.ANNULEE) {
+            bgColor = PdfStyles.DANGER_LIGHT;
+        } else {
+            bgColor = PdfStyles.statusColor(status);
         }
 
         Cell cell = new Cell()
-                .add(new Paragraph(status)
+                .add(new Paragraph(status != null ? status.name() : "N/A")
                         .setFontSize(9)
                         .setBold()
                         .setFontColor(ColorConstants.WHITE))
@@ -362,7 +389,7 @@ public class PdfReservationExportService {
 
     private Paragraph createSeparatorLine() {
         Paragraph line = new Paragraph("_".repeat(100))
-                .setFontColor(new DeviceRgb(226, 232, 240))
+                .setFontColor(PdfStyles.BORDER)
                 .setFontSize(8)
                 .setMarginBottom(10);
         return line;
@@ -1,24 +1,30 @@
 package org.example.reservation_event.ServicesImplimentation;
 
-import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.draw.SolidLine;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import io.micrometer.core.instrument.Timer;
+import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.example.reservation_event.utils.PdfStyles;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
@@ -31,190 +37,81 @@ public class PdfTicketService {
     private static final DateTimeFormatter SHORT_DATE_FORMATTER =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    // Taille typique d'un billet, évite les recopies du tampon en cours d'écriture
+    private static final int TICKET_BUFFER_SIZE = 16 * 1024;
+
+    private static final String CONDITIONS =
+            "⚠️ Conditions importantes\n" +
+                    "• Ce billet est personnel et non transférable\n" +
+                    "• Présentez ce billet (imprimé ou numérique) à l'entrée de l'événement\n" +
+                    "• Les réservations peuvent être annulées jusqu'à 48h avant l'événement\n" +
+                    "• Conservez précieusement votre code de réservation\n" +
+                    "• En cas de problème, contactez l'organisateur\n\n" +
+                    "Généré le ";
+
+    // Styles du gabarit de billet : construits une fois, seules les polices (liées au document) et les valeurs changent
+    private static final Style BRAND = new Style()
+            .setFontSize(20).setFontColor(PdfStyles.PRIMARY)
+            .setTextAlignment(TextAlignment.CENTER).setMarginBottom(5);
+    private static final Style SUBTITLE = new Style()
+            .setFontSize(10).setFontColor(PdfStyles.GRAY)
+            .setTextAlignment(TextAlignment.CENTER).setMarginBottom(10);
+    private static final Style TITLE = new Style()
+            .setFontSize(24).setFontColor(PdfStyles.DARK)
+            .setTextAlignment(TextAlignment.CENTER).setMarginBottom(5);
+    private static final Style CODE = new Style()
+            .setFontSize(32).setFontColor(PdfStyles.PRIMARY)
+            .setTextAlignment(TextAlignment.CENTER).setMarginBottom(20);
+    private static final Style EVENT_TITLE = new Style()
+            .setFontSize(18).setFontColor(ColorConstants.WHITE);
+    private static final Style DETAIL_LABEL = new Style()
+            .setFontSize(11).setFontColor(PdfStyles.DARK);
+    private static final Style DETAIL_VALUE = new Style()
+            .setFontSize(11).setFontColor(PdfStyles.GRAY);
+    private static final Style INFO_CELL = new Style()
+            .setBorder(new SolidBorder(PdfStyles.BORDER, 1f))
+            .setPadding(15)
+            .setBackgroundColor(PdfStyles.LIGHT_BG);
+    private static final Style INFO_LABEL = new Style()
+            .setFontSize(10).setFontColor(PdfStyles.DARK).setMarginBottom(3);
+    private static final Style INFO_VALUE = new Style()
+            .setFontSize(12).setMarginBottom(10);
+    private static final Style STATUS = new Style()
+            .setFontSize(14).setFontColor(ColorConstants.WHITE)
+            .setPadding(8).setTextAlignment(TextAlignment.CENTER).setMarginBottom(20);
+    private static final Style SECTION_TITLE = new Style()
+            .setFontSize(12).setFontColor(PdfStyles.GRAY).setMarginBottom(5);
+    private static final Style SMALL_PRINT = new Style()
+            .setFontSize(8).setFontColor(PdfStyles.GRAY);
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
     /**
      * Génère un billet PDF pour une réservation
      */
     public byte[] generateTicketPdf(Reservation reservation) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        try {
+            return renderTicketPdf(reservation);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            operationMetrics.stop(sample, "pdf.ticket", error);
+        }
+    }
+
+    private byte[] renderTicketPdf(Reservation reservation) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(TICKET_BUFFER_SIZE);
 
         PdfWriter writer = new PdfWriter(baos);
         PdfDocument pdfDoc = new PdfDocument(writer);
         Document document = new Document(pdfDoc);
 
         try {
-            // Fonts
-            PdfFont boldFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-            PdfFont regularFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-
-            // Colors
-            DeviceRgb primaryColor = new DeviceRgb(79, 70, 229); // #4f46e5
-            DeviceRgb darkColor = new DeviceRgb(30, 41, 59); // #1e293b
-            DeviceRgb grayColor = new DeviceRgb(100, 116, 139); // #64748b
-
-            // ===== HEADER SECTION =====
-            addHeader(document, boldFont, primaryColor);
-
-            document.add(new Paragraph("\n"));
-
-            // ===== TITLE =====
-            Paragraph title = new Paragraph("BILLET D'ÉVÉNEMENT")
-                    .setFont(boldFont)
-                    .setFontSize(24)
-                    .setFontColor(darkColor)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(5);
-            document.add(title);
-
-            // ===== RESERVATION CODE (BIG) =====
-            Paragraph code = new Paragraph(reservation.getCodeReservation())
-                    .setFont(boldFont)
-                    .setFontSize(32)
-                    .setFontColor(primaryColor)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20);
-            document.add(code);
-
-            // ===== EVENT INFO BOX =====
-            Table eventTable = new Table(UnitValue.createPercentArray(new float[]{1}));
-            eventTable.setWidth(UnitValue.createPercentValue(100));
-            eventTable.setBorder(new SolidBorder(primaryColor, 2f));
-            eventTable.setMarginBottom(20);
-
-            // Event Title
-            Cell titleCell = new Cell()
-                    .add(new Paragraph(reservation.getEvenement().getTitre())
-                            .setFont(boldFont)
-                            .setFontSize(18)
-                            .setFontColor(ColorConstants.WHITE))
-                    .setBackgroundColor(primaryColor)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setPadding(10)
-                    .setBorder(Border.NO_BORDER);
-            eventTable.addCell(titleCell);
-
-            // Event Details
-            Cell detailsCell = new Cell()
-                    .setPadding(15)
-                    .setBorder(Border.NO_BORDER);
-
-            detailsCell.add(createDetailRow("📅 Date",
-                    DATE_FORMATTER.format(reservation.getEvenement().getDateDebut()),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            detailsCell.add(createDetailRow("📍 Lieu",
-                    reservation.getEvenement().getLieu() + ", " + reservation.getEvenement().getVille(),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            detailsCell.add(createDetailRow("🎫 Catégorie",
-                    reservation.getEvenement().getCategorie().getLabel(),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            eventTable.addCell(detailsCell);
-            document.add(eventTable);
-
-            // ===== RESERVATION DETAILS =====
-            Table reservationTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}));
-            reservationTable.setWidth(UnitValue.createPercentValue(100));
-            reservationTable.setMarginBottom(20);
-
-            // Left column
-            Cell leftCell = new Cell()
-                    .setBorder(new SolidBorder(new DeviceRgb(226, 232, 240), 1f))
-                    .setPadding(15)
-                    .setBackgroundColor(new DeviceRgb(248, 250, 252));
-
-            leftCell.add(createInfoBlock("Titulaire",
-                    reservation.getUtilisateur().getPrenom() + " " + reservation.getUtilisateur().getNom(),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            leftCell.add(createInfoBlock("Email",
-                    reservation.getUtilisateur().getEmail(),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            if (reservation.getUtilisateur().getTelephone() != null) {
-                leftCell.add(createInfoBlock("Téléphone",
-                        reservation.getUtilisateur().getTelephone(),
-                        boldFont, regularFont, darkColor, grayColor));
-            }
-
-            reservationTable.addCell(leftCell);
-
-            // Right column
-            Cell rightCell = new Cell()
-                    .setBorder(new SolidBorder(new DeviceRgb(226, 232, 240), 1f))
-                    .setPadding(15)
-                    .setBackgroundColor(new DeviceRgb(248, 250, 252));
-
-            rightCell.add(createInfoBlock("Nombre de places",
-                    String.valueOf(reservation.getNombrePlaces()),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            rightCell.add(createInfoBlock("Prix unitaire",
-                    String.format("%.2f DH", reservation.getEvenement().getPrixUnitaire()),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            rightCell.add(createInfoBlock("Montant total",
-                    String.format("%.2f DH", reservation.getMontantTotal()),
-                    boldFont, regularFont, darkColor, new DeviceRgb(5, 150, 105)));
-
-            rightCell.add(createInfoBlock("Date de réservation",
-                    SHORT_DATE_FORMATTER.format(reservation.getDateReservation()),
-                    boldFont, regularFont, darkColor, grayColor));
-
-            reservationTable.addCell(rightCell);
-            document.add(reservationTable);
-
-            // ===== STATUS BADGE =====
-            Paragraph status = new Paragraph("✓ " + reservation.getStatut().getLabel())
-                    .setFont(boldFont)
-                    .setFontSize(14)
-                    .setFontColor(ColorConstants.WHITE)
-                    .setBackgroundColor(getStatusColor(reservation.getStatut().name()))
-                    .setPadding(8)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20);
-            document.add(status);
-
-            // ===== ORGANIZER INFO =====
-            if (reservation.getEvenement().getOrganisateur() != null) {
-                Paragraph organizerTitle = new Paragraph("Organisateur")
-                        .setFont(boldFont)
-                        .setFontSize(12)
-                        .setFontColor(grayColor)
-                        .setMarginBottom(5);
-                document.add(organizerTitle);
-
-                Paragraph organizer = new Paragraph(
-                        reservation.getEvenement().getOrganisateur().getPrenom() + " " +
-                                reservation.getEvenement().getOrganisateur().getNom())
-                        .setFont(regularFont)
-                        .setFontSize(11)
-                        .setFontColor(darkColor)
-                        .setMarginBottom(15);
-                document.add(organizer);
-            }
-
-            // ===== COMMENT (if exists) =====
-            if (reservation.getCommentaire() != null && !reservation.getCommentaire().isEmpty()) {
-                Paragraph commentTitle = new Paragraph("Commentaire")
-                        .setFont(boldFont)
-                        .setFontSize(12)
-                        .setFontColor(grayColor)
-                        .setMarginBottom(5);
-                document.add(commentTitle);
-
-                Paragraph comment = new Paragraph(reservation.getCommentaire())
-                        .setFont(regularFont)
-                        .setFontSize(10)
-                        .setFontColor(darkColor)
-                        .setItalic()
-                        .setMarginBottom(15);
-                document.add(comment);
-            }
-
-            // ===== FOOTER =====
-            addFooter(document, regularFont, grayColor);
-
+            writeTicket(document, reservation, PdfStyles.bold(), PdfStyles.regular());
         } finally {
             document.close();
         }
@@ -222,108 +119,186 @@ public class PdfTicketService {
         return baos.toByteArray();
     }
 
-    private void addHeader(Document document, PdfFont font, DeviceRgb color) {
-        Paragraph header = new Paragraph("EventBooking")
-                .setFont(font)
-                .setFontSize(20)
-                .setFontColor(color)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginBottom(5);
-        document.add(header);
+    /**
+     * Remplit le gabarit du billet dans un document ouvert
+     */
+    private void writeTicket(Document document, Reservation reservation,
+                             PdfFont boldFont, PdfFont regularFont) {
+        Event event = reservation.getEvenement();
+        User client = reservation.getUtilisateur();
+
+        // ===== HEADER SECTION =====
+        addHeader(document, boldFont);
+
+        document.add(new Paragraph("\n"));
 
-        Paragraph subtitle = new Paragraph("Système de Gestion de Réservations d'Événements")
-                .setFontSize(10)
-                .setFontColor(new DeviceRgb(100, 116, 139))
+        // ===== TITLE =====
+        document.add(new Paragraph("BILLET D'ÉVÉNEMENT").addStyle(TITLE).setFont(boldFont));
+
+        // ===== RESERVATION CODE (BIG) =====
+        document.add(new Paragraph(reservation.getCodeReservation()).addStyle(CODE).setFont(boldFont));
+
+        // ===== EVENT INFO BOX =====
+        Table eventTable = new Table(UnitValue.createPercentArray(new float[]{1}));
+        eventTable.setWidth(UnitValue.createPercentValue(100));
+        eventTable.setBorder(new SolidBorder(PdfStyles.PRIMARY, 2f));
+        eventTable.setMarginBottom(20);
+
+        // Event Title
+        Cell titleCell = new Cell()
+                .add(new Paragraph(event.getTitre()).addStyle(EVENT_TITLE).setFont(boldFont))
+                .setBackgroundColor(PdfStyles.PRIMARY)
                 .setTextAlignment(TextAlignment.CENTER)
-                .setMarginBottom(10);
-        document.add(subtitle);
+                .setPadding(10)
+                .setBorder(Border.NO_BORDER);
+        eventTable.addCell(titleCell);
+
+        // Event Details
+        Cell detailsCell = new Cell()
+                .setPadding(15)
+                .setBorder(Border.NO_BORDER);
+
+        detailsCell.add(createDetailRow("📅 Date",
+                DATE_FORMATTER.format(event.getDateDebut()), boldFont, regularFont));
+
+        detailsCell.add(createDetailRow("📍 Lieu",
+                event.getLieu() + ", " + event.getVille(), boldFont, regularFont));
+
+        detailsCell.add(createDetailRow("🎫 Catégorie",
+                event.getCategorie().getLabel(), boldFont, regularFont));
+
+        eventTable.addCell(detailsCell);
+        document.add(eventTable);
+
+        // ===== RESERVATION DETAILS =====
+        Table reservationTable = new Table(UnitValue.createPercentArray(new float[]{1, 1}));
+        reservationTable.setWidth(UnitValue.createPercentValue(100));
+        reservationTable.setMarginBottom(20);
+
+        // Left column
+        Cell leftCell = new Cell().addStyle(INFO_CELL);
+
+        leftCell.add(createInfoBlock("Titulaire",
+                client.getPrenom() + " " + client.getNom(),
+                boldFont, regularFont, PdfStyles.GRAY));
+
+        leftCell.add(createInfoBlock("Email",
+                client.getEmail(), boldFont, regularFont, PdfStyles.GRAY));
+
+        if (client.getTelephone() != null) {
+            leftCell.add(createInfoBlock("Téléphone",
+                    client.getTelephone(), boldFont, regularFont, PdfStyles.GRAY));
+        }
+
+        reservationTable.addCell(leftCell);
+
+        // Right column
+        Cell rightCell = new Cell().addStyle(INFO_CELL);
+
+        rightCell.add(createInfoBlock("Nombre de places",
+                String.valueOf(reservation.getNombrePlaces()),
+                boldFont, regularFont, PdfStyles.GRAY));
+
+        rightCell.add(createInfoBlock("Prix unitaire",
+                String.format("%.2f DH", event.getPrixUnitaire()),
+                boldFont, regularFont, PdfStyles.GRAY));
+
+        rightCell.add(createInfoBlock("Montant total",
+                String.format("%.2f DH", reservation.getMontantTotal()),
+                boldFont, regularFont, PdfStyles.SUCCESS));
+
+        rightCell.add(createInfoBlock("Date de réservation",
+                SHORT_DATE_FORMATTER.format(reservation.getDateReservation()),
+                boldFont, regularFont, PdfStyles.GRAY));
+
+        reservationTable.addCell(rightCell);
+        document.add(reservationTable);
+
+        // ===== STATUS BADGE =====
+        document.add(new Paragraph("✓ " + reservation.getStatut().getLabel())
+                .addStyle(STATUS)
+                .setFont(boldFont)
+                .setBackgroundColor(PdfStyles.statusColor(reservation.getStatut())));
+
+        // ===== ORGANIZER INFO =====
+        if (event.getOrganisateur() != null) {
+            document.add(new Paragraph("Organisateur").addStyle(SECTION_TITLE).setFont(boldFont));
+
+            Paragraph organizer = new Paragraph(
+                    event.getOrganisateur().getPrenom() + " " + event.getOrganisateur().getNom())
+                    .setFont(regularFont)
+                    .setFontSize(11)
+                    .setFontColor(PdfStyles.DARK)
+                    .setMarginBottom(15);
+            document.add(organizer);
+        }
+
+        // ===== COMMENT (if exists) =====
+        if (reservation.getCommentaire() != null && !reservation.getCommentaire().isEmpty()) {
+            document.add(new Paragraph("Commentaire").addStyle(SECTION_TITLE).setFont(boldFont));
+
+            Paragraph comment = new Paragraph(reservation.getCommentaire())
+                    .setFont(regularFont)
+                    .setFontSize(10)
+                    .setFontColor(PdfStyles.DARK)
+                    .setItalic()
+                    .setMarginBottom(15);
+            document.add(comment);
+        }
+
+        // ===== FOOTER =====
+        addFooter(document, regularFont);
+    }
+
+    private void addHeader(Document document, PdfFont font) {
+        document.add(new Paragraph("EventBooking").addStyle(BRAND).setFont(font));
+
+        document.add(new Paragraph("Système de Gestion de Réservations d'Événements").addStyle(SUBTITLE));
 
         // Horizontal line - CORRECTION ICI
         SolidLine solidLine = new SolidLine(2f);
-        solidLine.setColor(color);
+        solidLine.setColor(PdfStyles.PRIMARY);
         LineSeparator line = new LineSeparator(solidLine);
         document.add(line);
     }
 
-    private void addFooter(Document document, PdfFont font, DeviceRgb color) {
+    private void addFooter(Document document, PdfFont font) {
         // Horizontal line - CORRECTION ICI
         SolidLine solidLine = new SolidLine(1f);
-        solidLine.setColor(new DeviceRgb(226, 232, 240));
+        solidLine.setColor(PdfStyles.BORDER);
         LineSeparator line = new LineSeparator(solidLine);
         document.add(line);
 
-        Paragraph footer = new Paragraph(
-                "⚠️ Conditions importantes\n" +
-                        "• Ce billet est personnel et non transférable\n" +
-                        "• Présentez ce billet (imprimé ou numérique) à l'entrée de l'événement\n" +
-                        "• Les réservations peuvent être annulées jusqu'à 48h avant l'événement\n" +
-                        "• Conservez précieusement votre code de réservation\n" +
-                        "• En cas de problème, contactez l'organisateur\n\n" +
-                        "Généré le " + java.time.LocalDateTime.now().format(SHORT_DATE_FORMATTER))
+        Paragraph footer = new Paragraph(CONDITIONS + LocalDateTime.now().format(SHORT_DATE_FORMATTER))
+                .addStyle(SMALL_PRINT)
                 .setFont(font)
-                .setFontSize(8)
-                .setFontColor(color)
                 .setTextAlignment(TextAlignment.LEFT)
                 .setMarginTop(10);
         document.add(footer);
 
         Paragraph copyright = new Paragraph("© 2025 EventBooking - Tous droits réservés")
+                .addStyle(SMALL_PRINT)
                 .setFont(font)
-                .setFontSize(8)
-                .setFontColor(color)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginTop(5);
         document.add(copyright);
     }
 
     private Paragraph createDetailRow(String label, String value,
-                                      PdfFont boldFont, PdfFont regularFont,
-                                      DeviceRgb darkColor, DeviceRgb grayColor) {
+                                      PdfFont boldFont, PdfFont regularFont) {
         Paragraph p = new Paragraph();
-        p.add(new Text(label + ": ")
-                .setFont(boldFont)
-                .setFontSize(11)
-                .setFontColor(darkColor));
-        p.add(new Text(value)
-                .setFont(regularFont)
-                .setFontSize(11)
-                .setFontColor(grayColor));
+        p.add(new Text(label + ": ").addStyle(DETAIL_LABEL).setFont(boldFont));
+        p.add(new Text(value).addStyle(DETAIL_VALUE).setFont(regularFont));
         p.setMarginBottom(8);
         return p;
     }
 
     private Div createInfoBlock(String label, String value,
                                 PdfFont boldFont, PdfFont regularFont,
-                                DeviceRgb darkColor, DeviceRgb valueColor) {
+                                DeviceRgb valueColor) {
         Div div = new Div();
-
-        Paragraph labelP = new Paragraph(label)
-                .setFont(boldFont)
-                .setFontSize(10)
-                .setFontColor(darkColor)
-                .setMarginBottom(3);
-        div.add(labelP);
-
-        Paragraph valueP = new Paragraph(value)
-                .setFont(regularFont)
-                .setFontSize(12)
-                .setFontColor(valueColor)
-                .setMarginBottom(10);
-        div.add(valueP);
-
+        div.add(new Paragraph(label).addStyle(INFO_LABEL).setFont(boldFont));
+        div.add(new Paragraph(value).addStyle(INFO_VALUE).setFont(regularFont).setFontColor(valueColor));
         return div;
     }
-
-    private DeviceRgb getStatusColor(String status) {
-        switch (status) {
-            case "CONFIRMEE":
-                return new DeviceRgb(5, 150, 105); // Green
-            case "EN_ATTENTE":
-                return new DeviceRgb(245, 158, 11); // Orange
-            case "ANNULEE":
-                return new DeviceRgb(220, 38, 38); // Red
-            default:
-                return new DeviceRgb(107, 114, 128); // Gray
-        }
-    }
-}
\ No newline at end of file
+}
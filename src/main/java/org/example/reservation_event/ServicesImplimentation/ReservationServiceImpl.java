@@ -3,21 +3,30 @@ package org.example.reservation_event.ServicesImplimentation;
 import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.Enums.ReservationStatut;
 import org.example.reservation_event.Exceptions.*;
 import org.example.reservation_event.repositories.ReservationRepository;
 import org.example.reservation_event.repositories.EventRepository;
+import org.example.reservation_event.services.EmailOutboxService;
 import org.example.reservation_event.services.ReservationService;
+import org.example.reservation_event.services.RevenueRollupService;
 import org.example.reservation_event.dtos.ReservationSummaryDTO;
+import org.example.reservation_event.dtos.ReservationTotalsDTO;
 import org.example.reservation_event.mappers.ReservationMapper;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -29,6 +38,15 @@ public class ReservationServiceImpl implements ReservationService {
     @Autowired
     private ReservationMapper reservationMapper;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
     public ReservationServiceImpl(ReservationRepository reservationRepository, EventRepository eventRepository) {
         this.reservationRepository = reservationRepository;
         this.eventRepository = eventRepository;
@@ -39,17 +57,30 @@ public class ReservationServiceImpl implements ReservationService {
     public Reservation createReservation(Event event, User user, int nombrePlaces, String commentaire)
             throws BadRequestException, ConflictException, BusinessException {
 
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        try {
+            return doCreateReservation(event, user, nombrePlaces, commentaire);
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            operationMetrics.stop(sample, "reservation.create", error);
+        }
+    }
+
+    private Reservation doCreateReservation(Event event, User user, int nombrePlaces, String commentaire) {
         if (event == null) throw new BadRequestException("Événement invalide");
-        if (!event.isReservable()) throw new BusinessException("L'événement n'est pas réservable");
+        if (event.getStatut() != EventStatut.PUBLIE || !LocalDateTime.now().isBefore(event.getDateDebut()))
+            throw new BusinessException("L'événement n'est pas réservable");
         if (nombrePlaces < 1 || nombrePlaces > 10) throw new BadRequestException("Nombre de places invalide");
-        if (!event.hasPlacesDisponibles(nombrePlaces))
-            throw new ConflictException("Pas assez de places disponibles");
 
-        // Debug logging
-        System.out.println("=== CREATING RESERVATION ===");
-        System.out.println("Event available places before: " + event.getPlacesDisponibles());
+        // Prise de places atomique : un seul UPDATE conditionnel, sans charger les réservations.
+        // Deux réservations concurrentes ne peuvent pas dépasser la capacité.
+        // Événement annulé entre-temps : 0 aussi, même refus
+        if (eventRepository.reserveSeats(event.getId(), nombrePlaces) == 0)
+            throw new ConflictException("Pas assez de places disponibles");
 
-        // Create reservation
         Reservation reservation = Reservation.builder()
                 .evenement(event)
                 .utilisateur(user)
@@ -57,44 +88,62 @@ public class ReservationServiceImpl implements ReservationService {
                 .commentaire(commentaire)
                 .build();
 
-        // Check status after building
-        System.out.println("Reservation status after build: " + reservation.getStatut());
-
         reservation.calculerMontantTotal();
 
-        // Check status before save
-        System.out.println("Reservation status before save: " + reservation.getStatut());
-
-        Reservation savedReservation = reservationRepository.save(reservation);
-
-        // Check status after save
-        System.out.println("Reservation status after save: " + savedReservation.getStatut());
-
-        // Refresh event to see available places
-        event = eventRepository.findById(event.getId()).orElseThrow();
-        System.out.println("Event available places after: " + event.getPlacesDisponibles());
-        System.out.println("=== RESERVATION CREATED ===");
-
-        return savedReservation;
+        Reservation saved = reservationRepository.save(reservation);
+        // Email de confirmation écrit dans la même transaction, envoyé hors requête par l'outbox
+        emailOutboxService.enqueueReservationConfirmation(saved);
+        return saved;
     }
 
     @Override
     public Reservation confirmReservation(Reservation reservation) throws BusinessException {
-        if (reservation.getStatut() != ReservationStatut.EN_ATTENTE) {
+        // Changement de statut conditionnel, sans merge de l'entité de la grille (statut et reminderSentAt
+        // peut-être périmés) : une réservation annulée entre-temps ne peut pas redevenir CONFIRMEE
+        if (reservationRepository.confirmIfEnAttente(reservation.getId()) == 0) {
             throw new BusinessException("Seule une réservation en attente peut être confirmée");
         }
+        Reservation saved = reservationRepository.findById(reservation.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée"));
+        // Entité chargée alignée sur la base (déjà gérée avant l'UPDATE : le flush réécrit la même valeur)
+        saved.setStatut(ReservationStatut.CONFIRMEE);
+        revenueRollupService.recordConfirmed(saved);
         reservation.setStatut(ReservationStatut.CONFIRMEE);
-        return reservationRepository.save(reservation);
+        return saved;
     }
 
     @Transactional
-    public void cancelReservation(Long reservationId) {
+    public boolean cancelReservation(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Réservation non trouvée"));
 
-        // Logique d'annulation existante...
+        ReservationStatut previous = reservation.getStatut();
+        if (!reservation.isActive()) {
+            return false;
+        }
+        // Changement de statut conditionnel : sur deux annulations concurrentes, une seule
+        // obtient 1 et libère les places (le compteur ne peut pas être décrémenté deux fois)
+        if (reservationRepository.cancelIfStatut(reservationId, previous) == 0) {
+            return false;
+        }
+
+        eventRepository.releaseSeats(reservation.getEvenement().getId(), reservation.getNombrePlaces());
+        if (previous == ReservationStatut.CONFIRMEE) {
+            revenueRollupService.recordCancelled(reservation);
+        }
+        // Entité chargée alignée sur la base (le flush réécrit la même valeur)
         reservation.setStatut(ReservationStatut.ANNULEE);
-        reservationRepository.save(reservation);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void cancelReservationAndNotify(Long reservationId, String reason) {
+        // Email seulement si cette annulation a changé le statut (pas de doublon sur un second appel)
+        if (cancelReservation(reservationId)) {
+            emailOutboxService.enqueueReservationCancellation(
+                    reservationRepository.getReferenceById(reservationId), reason);
+        }
     }
 
     @Override
@@ -146,113 +195,20 @@ public class ReservationServiceImpl implements ReservationService {
     // NOUVELLES MÉTHODES IMPLÉMENTÉES
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationSummaryDTO> getReservationsByUserAsDTO(User user) {
-        try {
-            // Essayer d'abord avec la méthode repository qui retourne directement les DTOs
-            if (reservationRepositoryHasDTOMethods()) {
-                List<ReservationSummaryDTO> dtos = reservationRepository.findReservationsByUserAsDTO(user);
-
-                // ✅ AJOUT : Enrichir les DTOs avec le statut de l'événement
-                dtos.forEach(dto -> {
-                    eventRepository.findById(dto.getEvenementId())
-                            .ifPresent(event -> dto.setEvenementStatut(event.getStatut()));
-                });
-
-                return dtos;
-            }
-        } catch (Exception e) {
-            System.out.println("Méthode DTO du repository non disponible, utilisation du fallback: " + e.getMessage());
-        }
-
-        // Fallback: récupérer les entités et les mapper
-        List<Reservation> reservations = reservationRepository.findByUtilisateur(user);
-        return reservations.stream()
-                .map(reservation -> {
-                    ReservationSummaryDTO dto = new ReservationSummaryDTO();
-                    dto.setId(reservation.getId());
-                    dto.setCodeReservation(reservation.getCodeReservation());
-                    dto.setNombrePlaces(reservation.getNombrePlaces());
-                    dto.setMontantTotal(reservation.getMontantTotal());
-                    dto.setDateReservation(reservation.getDateReservation());
-                    dto.setStatut(reservation.getStatut());
-
-                    // Charger l'événement si nécessaire (éviter LazyInitialization)
-                    if (reservation.getEvenement() != null) {
-                        dto.setEvenementId(reservation.getEvenement().getId());
-                        dto.setEvenementTitre(reservation.getEvenement().getTitre());
-                        dto.setEvenementDateDebut(reservation.getEvenement().getDateDebut());
-                        dto.setEvenementDateFin(reservation.getEvenement().getDateFin());
-                        dto.setEvenementLieu(reservation.getEvenement().getLieu());
-                        dto.setEvenementVille(reservation.getEvenement().getVille());
-                        dto.setEvenementPrixUnitaire(reservation.getEvenement().getPrixUnitaire());
-                        dto.setEvenementStatut(reservation.getEvenement().getStatut()); // ✅ AJOUT ICI
-                    }
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        // Une seule requête : la projection inclut déjà l'événement (dont son statut) et l'utilisateur
+        return reservationRepository.findReservationsByUserAsDTO(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReservationSummaryDTO> getUpcomingReservationsByUser(User user) {
-        try {
-            // Essayer d'abord avec la méthode repository DTO
-            if (reservationRepositoryHasDTOMethods()) {
-                return reservationRepository.findUpcomingReservationsByUser(
-                        user,
-                        ReservationStatut.CONFIRMEE,
-                        LocalDateTime.now()
-                );
-            }
-        } catch (Exception e) {
-            System.out.println("Méthode upcoming DTO non disponible, utilisation du fallback: " + e.getMessage());
-        }
-
-        // Fallback: méthode alternative avec filtre manuel
-        List<Reservation> reservations = reservationRepository.findByUtilisateurAndStatut(
+        return reservationRepository.findUpcomingReservationsByUser(
                 user,
-                ReservationStatut.CONFIRMEE
+                ReservationStatut.CONFIRMEE,
+                LocalDateTime.now()
         );
-
-        return reservations.stream()
-                .filter(reservation -> {
-                    try {
-                        return reservation.getEvenement().getDateDebut().isAfter(LocalDateTime.now());
-                    } catch (Exception e) {
-                        System.out.println("Erreur lors de l'accès à la date de l'événement: " + e.getMessage());
-                        return false;
-                    }
-                })
-                .map(reservation -> {
-                    ReservationSummaryDTO dto = new ReservationSummaryDTO();
-                    dto.setId(reservation.getId());
-                    dto.setCodeReservation(reservation.getCodeReservation());
-                    dto.setNombrePlaces(reservation.getNombrePlaces());
-                    dto.setMontantTotal(reservation.getMontantTotal());
-                    dto.setDateReservation(reservation.getDateReservation());
-                    dto.setStatut(reservation.getStatut());
-
-                    if (reservation.getEvenement() != null) {
-                        dto.setEvenementTitre(reservation.getEvenement().getTitre());
-                        dto.setEvenementDateDebut(reservation.getEvenement().getDateDebut());
-                        dto.setEvenementLieu(reservation.getEvenement().getLieu());
-                    }
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
-    }
-
-    // Méthode utilitaire pour vérifier si les méthodes DTO existent dans le repository
-    private boolean reservationRepositoryHasDTOMethods() {
-        try {
-            // Tester si la méthode existe en essayant de l'appeler avec des paramètres nuls
-            // Cela va échouer mais nous indiquera si la méthode existe
-            reservationRepository.getClass().getMethod("findReservationsByUserAsDTO", User.class);
-            return true;
-        } catch (NoSuchMethodException e) {
-            return false;
-        }
     }
 
     public Reservation getReservationById(Long id) {
@@ -322,4 +278,69 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationRepository.existsByEvenementAndUtilisateurAndStatut(
                 event, user, ReservationStatut.CONFIRMEE);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> searchReservations(String search, ReservationStatut statut,
+                                                LocalDateTime debut, LocalDateTime fin, Pageable pageable) {
+        return reservationRepository.findAdminPage(statut, debut, fin, toLikePattern(search), withDefaultSort(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationTotalsDTO getReservationTotals(String search, ReservationStatut statut,
+                                                     LocalDateTime debut, LocalDateTime fin) {
+        ReservationTotalsDTO totals = reservationRepository.findAdminTotals(statut, debut, fin, toLikePattern(search));
+        return totals != null ? totals : new ReservationTotalsDTO();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> searchEventReservations(Long eventId, String search, ReservationStatut statut,
+                                                     Pageable pageable) {
+        return reservationRepository.findEventPage(eventId, statut, toLikePattern(search), withDefaultSort(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Reservation> searchEventReservationsAfter(Long eventId, String search, ReservationStatut statut,
+                                                          Long afterId, int limit) {
+        return reservationRepository.findEventChunkAfter(eventId, statut, toLikePattern(search), afterId,
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Reservation> streamEventReservations(Long eventId, String search, ReservationStatut statut) {
+        return reservationRepository.streamEventExport(eventId, statut, toLikePattern(search));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Stream<Reservation> streamReservations(String search, ReservationStatut statut,
+                                                  LocalDateTime debut, LocalDateTime fin) {
+        return reservationRepository.streamAdminExport(statut, debut, fin, toLikePattern(search));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationTotalsDTO getEventReservationTotals(Long eventId, String search, ReservationStatut statut) {
+        ReservationTotalsDTO totals = reservationRepository.findEventTotals(eventId, statut, toLikePattern(search));
+        return totals != null ? totals : new ReservationTotalsDTO();
+    }
+
+    // Ordre stable pour la pagination : plus récentes d'abord si la grille n'impose pas de tri
+    private Pageable withDefaultSort(Pageable pageable) {
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(Sort.Direction.DESC, "dateReservation"));
+        }
+        return pageable;
+    }
+
+    // Motif LIKE insensible à la casse, null si aucun texte recherché
+    private String toLikePattern(String search) {
+        if (search == null || search.isBlank()) return null;
+        return "%" + search.trim().toLowerCase() + "%";
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.example.reservation_event.Enums.ExportFormat;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.example.reservation_event.services.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export CSV et Excel (XLSX) des listes de réservations, écrit directement dans le flux de téléchargement.
+ *
+ * Les réservations sont parcourues en avant seul (Stream JPA) et le contexte de persistance est vidé
+ * régulièrement ; côté Excel, SXSSF ne garde qu'une fenêtre de lignes en mémoire et écrit le reste
+ * dans un fichier temporaire. La mémoire utilisée ne dépend donc pas du nombre de lignes.
+ */
+@Service
+public class ReservationSheetExportService {
+
+    private static final String[] HEADERS =
+            {"Code", "Client", "Email", "Événement", "Date réservation", "Places", "Montant (DH)", "Statut"};
+
+    private static final int[] COLUMN_WIDTHS = {14, 28, 34, 40, 20, 10, 14, 14};
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Entités détachées toutes les CLEAR_EVERY lignes pendant le parcours
+    private static final int CLEAR_EVERY = 1000;
+
+    // Lignes Excel gardées en mémoire par SXSSF avant écriture dans le fichier temporaire
+    private static final int XLSX_ROW_WINDOW = 200;
+
+    // Au-delà, les lignes continuent sur une nouvelle feuille
+    private static final int XLSX_MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Exporte les réservations filtrées d'un événement (vue organisateur).
+     * Le flux n'est pas fermé.
+     *
+     * @return Nombre de lignes écrites
+     */
+    @Transactional(readOnly = true)
+    public int exportEventReservations(Long eventId, String search, ReservationStatut statut,
+                                       ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Reservation> rows = reservationService.streamEventReservations(eventId, search, statut)) {
+            return write(detachingEvery(rows), format, out);
+        }
+    }
+
+    /**
+     * Exporte les réservations filtrées de la vue admin.
+     * Le flux n'est pas fermé.
+     *
+     * @return Nombre de lignes écrites
+     */
+    @Transactional(readOnly = true)
+    public int exportReservations(String search, ReservationStatut statut,
+                                  LocalDateTime debut, LocalDateTime fin,
+                                  ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Reservation> rows = reservationService.streamReservations(search, statut, debut, fin)) {
+            return write(detachingEvery(rows), format, out);
+        }
+    }
+
+    /**
+     * Écrit les réservations (utilisateur et événement chargés) au format demandé.
+     * Le flux n'est pas fermé.
+     *
+     * @return Nombre de lignes écrites
+     */
+    public int write(Stream<Reservation> rows, ExportFormat format, OutputStream out) throws IOException {
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        try {
+            int count = format == ExportFormat.XLSX ? writeXlsx(rows.iterator(), out) : writeCsv(rows.iterator(), out);
+            operationMetrics.increment("export.reservations.rows", count, "format", format.getExtension());
+            return count;
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            operationMetrics.stop(sample, "export.reservations", error, "format", format.getExtension());
+        }
+    }
+
+    /**
+     * Nom du fichier exporté (préfixe_titre_horodatage.extension, titre optionnel)
+     */
+    public String generateFileName(String prefix, Event event, ExportFormat format) {
+        StringBuilder name = new StringBuilder(prefix);
+        if (event != null) {
+            name.append('_').append(event.getTitre().replaceAll("[^a-zA-Z0-9]", "_"));
+        }
+        name.append('_').append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")));
+        return name.append('.').append(format.getExtension()).toString();
+    }
+
+    // ========================================
+    // CSV
+    // ========================================
+
+    private int writeCsv(Iterator<Reservation> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("\uFEFF"); // BOM UTF-8 : accents corrects à l'ouverture dans Excel
+
+        for (int i = 0; i < HEADERS.length; i++) {
+            if (i > 0) writer.write(',');
+            writeCsvField(writer, HEADERS[i]);
+        }
+        writer.write("\r\n");
+
+        int count = 0;
+        while (rows.hasNext()) {
+            Reservation r = rows.next();
+            User user = r.getUtilisateur();
+
+            writeCsvField(writer, r.getCodeReservation());
+            writer.write(',');
+            writeCsvField(writer, user != null ? user.getNomComplet() : "N/A");
+            writer.write(',');
+            writeCsvField(writer, user != null ? user.getEmail() : "N/A");
+            writer.write(',');
+            writeCsvField(writer, r.getEvenement() != null ? r.getEvenement().getTitre() : "N/A");
+            writer.write(',');
+            writeCsvField(writer, formatDateTime(r.getDateReservation()));
+            writer.write(',');
+            writer.write(String.valueOf(r.getNombrePlaces() != null ? r.getNombrePlaces() : 0));
+            writer.write(',');
+            writer.write(formatMontant(r.getMontantTotal()));
+            writer.write(',');
+            writeCsvField(writer, r.getStatut() != null ? r.getStatut().getLabel() : "");
+            writer.write("\r\n");
+            count++;
+        }
+
+        // Vide le tampon sans fermer le flux de la réponse
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Champ CSV (RFC 4180) : entre guillemets si nécessaire, guillemets doublés.
+     * Une valeur commençant par = + - @ est préfixée d'une apostrophe pour ne pas être
+     * interprétée comme une formule par le tableur.
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    // ========================================
+    // EXCEL (XLSX)
+    // ========================================
+
+    private int writeXlsx(Iterator<Reservation> rows, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+
+            CellStyle montantStyle = workbook.createCellStyle();
+            montantStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+
+            int count = 0;
+            int sheetCount = 0;
+            Sheet sheet = null;
+            int rowIndex = 0;
+
+            while (rows.hasNext() || sheet == null) {
+                if (sheet == null || rowIndex > XLSX_MAX_DATA_ROWS) {
+                    sheetCount++;
+                    sheet = createSheet(workbook, sheetCount, headerStyle);
+                    rowIndex = 1;
+                }
+                if (!rows.hasNext()) {
+                    break;
+                }
+
+                Reservation r = rows.next();
+                User user = r.getUtilisateur();
+                Row row = sheet.createRow(rowIndex++);
+
+                row.createCell(0).setCellValue(r.getCodeReservation());
+                row.createCell(1).setCellValue(user != null ? user.getNomComplet() : "N/A");
+                row.createCell(2).setCellValue(user != null ? user.getEmail() : "N/A");
+                row.createCell(3).setCellValue(r.getEvenement() != null ? r.getEvenement().getTitre() : "N/A");
+                if (r.getDateReservation() != null) {
+                    Cell date = row.createCell(4);
+                    date.setCellValue(r.getDateReservation());
+                    date.setCellStyle(dateStyle);
+                }
+                row.createCell(5).setCellValue(r.getNombrePlaces() != null ? r.getNombrePlaces() : 0);
+                Cell montant = row.createCell(6);
+                montant.setCellValue(r.getMontantTotal() != null ? r.getMontantTotal() : 0.0);
+                montant.setCellStyle(montantStyle);
+                row.createCell(7).setCellValue(r.getStatut() != null ? r.getStatut().getLabel() : "");
+                count++;
+            }
+
+            workbook.write(out);
+            out.flush();
+            return count;
+        } finally {
+            // Supprime les fichiers temporaires des feuilles
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private Sheet createSheet(SXSSFWorkbook workbook, int number, CellStyle headerStyle) {
+        Sheet sheet = workbook.createSheet(number == 1 ? "Réservations" : "Réservations (" + number + ")");
+        for (int i = 0; i < COLUMN_WIDTHS.length; i++) {
+            sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+        }
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    // ========================================
+    // UTILITAIRES
+    // ========================================
+
+    /**
+     * Vide le contexte de persistance toutes les CLEAR_EVERY lignes : les réservations déjà écrites
+     * ne restent pas référencées par la session (la ligne courante, entièrement chargée, reste lisible)
+     */
+    private Stream<Reservation> detachingEvery(Stream<Reservation> rows) {
+        int[] seen = {0};
+        return rows.peek(r -> {
+            if (++seen[0] % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        });
+    }
+
+    private String formatDateTime(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(DATE_FORMATTER) : "";
+    }
+
+    private String formatMontant(Double montant) {
+        if (montant == null) return "0.00";
+        return BigDecimal.valueOf(montant).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.RevenueMonthly;
+import org.example.reservation_event.dtos.MonthlyRevenueDTO;
+import org.example.reservation_event.repositories.ReservationRepository;
+import org.example.reservation_event.repositories.RevenueMonthlyRepository;
+import org.example.reservation_event.services.RevenueRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintient revenue_monthly dans la même transaction que le changement de statut de la réservation,
+ * pour que les graphiques de revenus ne dépendent plus du volume de l'historique.
+ */
+@Service
+@Transactional
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    @Autowired
+    private RevenueMonthlyRepository revenueMonthlyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    // Création des lignes de mois dans une transaction séparée, commitée tout de suite
+    private final TransactionTemplate newBucketTransaction;
+
+    public RevenueRollupServiceImpl(PlatformTransactionManager transactionManager) {
+        this.newBucketTransaction = new TransactionTemplate(transactionManager);
+        this.newBucketTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void recordConfirmed(Reservation reservation) {
+        LocalDateTime date = reservation.getDateReservation();
+        addToBucket(date.getYear(), date.getMonthValue(), reservation.getEvenement().getCategorie(),
+                reservation.getMontantTotal(), reservation.getNombrePlaces().longValue());
+    }
+
+    @Override
+    public void recordCancelled(Reservation reservation) {
+        LocalDateTime date = reservation.getDateReservation();
+        addToBucket(date.getYear(), date.getMonthValue(), reservation.getEvenement().getCategorie(),
+                -reservation.getMontantTotal(), -reservation.getNombrePlaces().longValue());
+    }
+
+    @Override
+    public void removeConfirmedForEvent(Event event) {
+        for (Object[] row : reservationRepository.sumConfirmedByMonthForEvent(event.getId())) {
+            addToBucket((Integer) row[0], (Integer) row[1], event.getCategorie(),
+                    -((Number) row[2]).doubleValue(), -((Number) row[3]).longValue());
+        }
+    }
+
+    @Override
+    public int rebuild() {
+        revenueMonthlyRepository.deleteAllBuckets();
+
+        List<RevenueMonthly> buckets = new ArrayList<>();
+        for (Object[] row : reservationRepository.sumConfirmedByMonthAndCategory()) {
+            buckets.add(RevenueMonthly.builder()
+                    .annee((Integer) row[0])
+                    .mois((Integer) row[1])
+                    .categorie((EventCategorie) row[2])
+                    .revenu(((Number) row[3]).doubleValue())
+                    .places(((Number) row[4]).longValue())
+                    .build());
+        }
+        revenueMonthlyRepository.saveAll(buckets);
+        return buckets.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return revenueMonthlyRepository.count() == 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyRevenueDTO> getRevenueByMonth() {
+        return revenueMonthlyRepository.sumRevenueByMonth();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public double getTotalRevenue() {
+        Double total = revenueMonthlyRepository.sumRevenue();
+        return total != null ? total : 0.0;
+    }
+
+    /**
+     * UPDATE de la ligne existante. Au premier montant du mois, la ligne est d'abord créée à zéro dans
+     * une transaction séparée (REQUIRES_NEW) puis l'UPDATE est rejoué : si une confirmation concurrente
+     * l'a créée au même moment, la violation de uk_revenue_monthly_mois_categorie reste dans cette
+     * transaction séparée et n'annule pas celle de l'appelant.
+     */
+    private void addToBucket(Integer annee, Integer mois, EventCategorie categorie, Double montant, Long places) {
+        if (revenueMonthlyRepository.addToBucket(annee, mois, categorie, montant, places) == 1) {
+            return;
+        }
+        try {
+            newBucketTransaction.executeWithoutResult(status ->
+                    revenueMonthlyRepository.saveAndFlush(RevenueMonthly.builder()
+                            .annee(annee)
+                            .mois(mois)
+                            .categorie(categorie)
+                            .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Ligne créée entre-temps par une autre transaction
+        }
+        if (revenueMonthlyRepository.addToBucket(annee, mois, categorie, montant, places) == 0) {
+            throw new IllegalStateException("Ligne revenue_monthly introuvable pour " + annee + "-" + mois + " " + categorie);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.reservation_event.classes;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.reservation_event.Enums.EmailOutboxStatut;
+import org.example.reservation_event.Enums.EmailOutboxType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email à envoyer, écrit dans la même transaction que la réservation puis envoyé par EmailOutboxWorker.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_statut_prochaine", columnList = "statut, prochaine_tentative")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private EmailOutboxType type;
+
+    @Column(nullable = false)
+    private Long reservationId;
+
+    // Raison d'annulation saisie par le client (emails d'annulation uniquement)
+    @Column(length = 500)
+    private String raison;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private EmailOutboxStatut statut = EmailOutboxStatut.EN_ATTENTE;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tentatives = 0;
+
+    @Column(name = "prochaine_tentative", nullable = false)
+    private LocalDateTime prochaineTentative;
+
+    @Column(length = 500)
+    private String derniereErreur;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dateCreation;
+
+    private LocalDateTime dateEnvoi;
+
+    @PrePersist
+    protected void onCreate() {
+        dateCreation = LocalDateTime.now();
+        if (prochaineTentative == null) {
+            prochaineTentative = dateCreation;
+        }
+    }
+}
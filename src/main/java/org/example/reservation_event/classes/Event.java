@@ -2,7 +2,6 @@ package org.example.reservation_event.classes;
 
 import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
-import org.example.reservation_event.Enums.ReservationStatut;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -11,7 +10,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_statut_date_debut", columnList = "statut, date_debut"),
+        @Index(name = "idx_events_date_fin", columnList = "date_fin"),
+        @Index(name = "idx_events_prix", columnList = "prix_unitaire"),
+        @Index(name = "idx_events_ville", columnList = "ville")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -79,7 +83,7 @@ public class Event {
 
     @Column(nullable = false)
     private LocalDateTime dateModification;
-    @OneToMany(mappedBy = "evenement", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "evenement", fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @Builder.Default
@@ -91,6 +95,12 @@ public class Event {
     @Column(name = "review_count", columnDefinition = "int default 0")
     private Integer reviewCount = 0;
 
+    // Compteur des places actives (CONFIRMEE + EN_ATTENTE).
+    // Non modifiable par merge : seules les requêtes atomiques de EventRepository le font évoluer.
+    @Column(name = "seats_reserved", updatable = false, columnDefinition = "int default 0")
+    @Builder.Default
+    private Integer seatsReserved = 0;
+
     // Getters et setters
     public Double getAverageRating() { return averageRating; }
     public void setAverageRating(Double averageRating) {
@@ -116,27 +126,9 @@ public class Event {
     }
 
     // Méthodes utilitaires
-    // In Event.java
+    // Basées sur le compteur seatsReserved : aucun accès à la collection (LAZY) des réservations
     public int getPlacesReservees() {
-        System.out.println("=== CALCUL PLACES RÉSERVÉES ===");
-        System.out.println("Nombre total de réservations: " + reservations.size());
-
-        int total = 0;
-        for (Reservation r : reservations) {
-            if (r.getStatut() == ReservationStatut.CONFIRMEE ||
-                    r.getStatut() == ReservationStatut.EN_ATTENTE) {
-                System.out.println("  - Comptée: " + r.getCodeReservation() +
-                        " - " + r.getNombrePlaces() + " places - " + r.getStatut());
-                total += r.getNombrePlaces();
-            } else {
-                System.out.println("  - Exclue: " + r.getCodeReservation() +
-                        " - " + r.getNombrePlaces() + " places - " + r.getStatut());
-            }
-        }
-        System.out.println("Total places réservées: " + total);
-        System.out.println("=== FIN CALCUL ===");
-
-        return total;
+        return seatsReserved != null ? seatsReserved : 0;
     }
 
     public int getPlacesDisponibles() {
@@ -160,11 +152,4 @@ public class Event {
                 LocalDateTime.now().isBefore(dateDebut) &&
                 getPlacesDisponibles() > 0;
     }
-
-    public double getRevenuTotal() {
-        return reservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
-    }
-}
\ No newline at end of file
+}
@@ -9,7 +9,10 @@ import java.time.Duration;
 import java.util.Random;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_evenement_statut", columnList = "evenement_id, statut"),
+        @Index(name = "idx_reservations_evenement_rappel", columnList = "evenement_id, reminder_sent_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -61,6 +64,10 @@ public class Reservation {
     @Column(length = 500)
     private String commentaire;
 
+    // Date d'envoi du rappel 24h ; posée avant l'envoi pour qu'un redémarrage ne renvoie jamais le rappel
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
     @PrePersist
     protected void onCreate() {
         dateReservation = LocalDateTime.now();
@@ -0,0 +1,45 @@
+package org.example.reservation_event.classes;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.reservation_event.Enums.EventCategorie;
+
+/**
+ * Agrégat des revenus confirmés par mois de réservation et par catégorie d'événement.
+ * Mis à jour à chaque confirmation / annulation, reconstruit par RevenueRollupService.rebuild().
+ */
+@Entity
+@Table(name = "revenue_monthly", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_revenue_monthly_mois_categorie", columnNames = {"annee", "mois", "categorie"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueMonthly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer annee;
+
+    @Column(nullable = false)
+    private Integer mois;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EventCategorie categorie;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Double revenu = 0.0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long places = 0L;
+}
@@ -0,0 +1,28 @@
+package org.example.reservation_event.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool borné des envois de l'outbox email : un SMTP lent ne bloque ni les requêtes Vaadin ni le scheduler.
+ */
+@Configuration
+public class EmailOutboxConfig {
+
+    public static final int QUEUE_CAPACITY = 100;
+
+    @Bean(name = "emailOutboxExecutor")
+    public ThreadPoolTaskExecutor emailOutboxExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("email-outbox-");
+        // À l'arrêt, termine les envois en cours ; les emails non acquittés repartiront après le bail
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.reservation_event.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool borné des envois de rappels 24h (EventReminderSchedule) : une page de candidats à la fois.
+ */
+@Configuration
+public class ReminderConfig {
+
+    public static final int CHUNK_SIZE = 200;
+
+    // Rappels envoyés sur une même connexion SMTP
+    public static final int BATCH_SIZE = 25;
+
+    @Bean(name = "reminderExecutor")
+    public ThreadPoolTaskExecutor reminderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(CHUNK_SIZE);
+        executor.setThreadNamePrefix("reminder-");
+        // File pleine : le thread du scheduler envoie lui-même (ralentit au lieu de rejeter)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
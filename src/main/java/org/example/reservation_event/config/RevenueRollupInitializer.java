@@ -0,0 +1,32 @@
+package org.example.reservation_event.config;
+
+import org.example.reservation_event.services.RevenueRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remplit revenue_monthly au démarrage si la table est vide (bases existantes créées avant son ajout).
+ * Une reconstruction complète reste disponible via /admin/debug/revenue/rebuild.
+ */
+@Component
+public class RevenueRollupInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupInitializer.class);
+
+    private final RevenueRollupService revenueRollupService;
+
+    public RevenueRollupInitializer(RevenueRollupService revenueRollupService) {
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (revenueRollupService.isEmpty()) {
+            int buckets = revenueRollupService.rebuild();
+            logger.info("Table revenue_monthly initialisée ({} ligne(s))", buckets);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.reservation_event.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tâches @Scheduled (rappels, outbox email, statuts d'événements, purge des images temporaires).
+ * Désactivables par app.scheduling.enabled=false (profil benchmark) : aucune tâche de fond ne tourne.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,32 @@
+package org.example.reservation_event.config;
+
+import org.example.reservation_event.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Recalcule au démarrage le compteur Event.seatsReserved à partir des réservations actives,
+ * pour les bases existantes créées avant l'ajout de la colonne.
+ */
+@Component
+public class SeatInventoryInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryInitializer.class);
+
+    private final EventRepository eventRepository;
+
+    public SeatInventoryInitializer(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int updated = eventRepository.resyncSeatsReserved();
+        logger.info("Compteur de places resynchronisé pour {} événement(s)", updated);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.reservation_event.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -15,6 +16,10 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 @EnableMethodSecurity(jsr250Enabled = true)
 public class SecurityConfig {
 
+    // Port de l'actuator (management.server.port), lié à une adresse interne ; -1 si non configuré
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -61,6 +66,20 @@ public class SecurityConfig {
                                 AntPathRequestMatcher.antMatcher("/h2-console/**")
                         ).permitAll()
 
+                        // ========== MONITORING ==========
+                        .requestMatchers(
+                                AntPathRequestMatcher.antMatcher("/actuator/health")
+                        ).permitAll()
+                        // Scrape Prometheus sans authentification uniquement sur le port de management
+                        // (management.server.address interne), jamais sur le port public de l'application
+                        .requestMatchers(request -> managementPort > 0
+                                && request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())
+                        ).permitAll()
+                        .requestMatchers(
+                                AntPathRequestMatcher.antMatcher("/actuator/**")
+                        ).hasAuthority("ADMIN")
+
                         // ========== ADMIN ==========
                         .requestMatchers(
                                 AntPathRequestMatcher.antMatcher("/admin/**"),
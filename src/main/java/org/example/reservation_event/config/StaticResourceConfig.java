@@ -1,53 +1,34 @@
 package org.example.reservation_event.config;
 
+import org.example.reservation_event.utils.ImageUtils;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import javax.annotation.PostConstruct;
-import java.io.File;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Anciennes images d'événements (nom de fichier dans Event.imageUrl), servies en statique.
+ * Les images du store sont servies par ImageController.
+ */
 @Configuration
 public class StaticResourceConfig implements WebMvcConfigurer {
 
-    @PostConstruct
-    public void init() {
-        System.out.println("=== StaticResourceConfig Initialized ===");
-
-        String basePath = "C:/Master/java_python/Reservation_event_sakina/uploads/events/";
-        File dir = new File(basePath);
-
-        System.out.println("Checking upload directory:");
-        System.out.println("Path: " + dir.getAbsolutePath());
-        System.out.println("Exists: " + dir.exists());
-        System.out.println("Is directory: " + dir.isDirectory());
-        System.out.println("Can read: " + dir.canRead());
-
-        if (dir.exists()) {
-            String[] files = dir.list();
-            System.out.println("Files in directory (" + (files != null ? files.length : 0) + "):");
-            if (files != null) {
-                for (String file : files) {
-                    System.out.println("  - " + file);
-                }
-            }
-        }
-    }
-
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        String basePath = "C:/Master/java_python/Reservation_event_sakina/uploads/events/";
-
-        System.out.println("Registering resource handler:");
-        System.out.println("Pattern: /images/events/**");
-        System.out.println("Location: file:" + basePath);
-
-        registry.addResourceHandler("/images/events/**")
-                .addResourceLocations("file:" + basePath)
-                .setCachePeriod(3600);
+        // Noms horodatés à l'upload, jamais réécrits : cache long, revalidé par Last-Modified
+        String location = Paths.get(System.getProperty("user.dir"), ImageUtils.LEGACY_UPLOAD_PATH).toUri().toString();
+        if (!location.endsWith("/")) {
+            location += "/";
+        }
 
-        // Also try with forward slashes
-        registry.addResourceHandler("/uploads/events/**")
-                .addResourceLocations("file:" + basePath.replace("\\", "/"));
+        // Avant le renvoi vers le servlet Vaadin, enregistré lui aussi sur /**
+        registry.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        registry.addResourceHandler("/" + ImageUtils.LEGACY_URL_PATH + "/**")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic());
     }
 }
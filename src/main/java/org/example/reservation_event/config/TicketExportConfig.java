@@ -0,0 +1,34 @@
+package org.example.reservation_event.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool de rendu des billets pour la génération groupée (BulkTicketService).
+ */
+@Configuration
+public class TicketExportConfig {
+
+    // Réservations lues en base par requête
+    public static final int CHUNK_SIZE = 200;
+
+    // Billets rendus en avance sur l'écriture : borne la mémoire quelle que soit la taille de l'événement
+    public static final int RENDER_WINDOW = 32;
+
+    @Bean(name = "ticketRenderExecutor")
+    public ThreadPoolTaskExecutor ticketRenderExecutor() {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(RENDER_WINDOW * 2);
+        executor.setThreadNamePrefix("ticket-render-");
+        // Plusieurs exports simultanés : le thread de la requête rend lui-même plutôt que d'échouer
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -3,8 +3,6 @@ package org.example.reservation_event.dtos;
 
 import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
-import org.example.reservation_event.Enums.ReservationStatut;
-import org.example.reservation_event.classes.Event;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -48,58 +46,4 @@ import java.time.LocalDateTime;
         private String organisateurEmail;
         private String organisateurTelephone;
         private String organisateurRole;
-
-        // Méthode statique pour convertir Event en EventDTO
-        public static EventDTO fromEntity(Event event) {
-            if (event == null) return null;
-
-            // Calculer les places réservées
-            int placesReservees = event.getReservations().stream()
-                    .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE ||
-                            r.getStatut() == ReservationStatut.EN_ATTENTE)
-                    .mapToInt(r -> r.getNombrePlaces())
-                    .sum();
-
-            int placesDisponibles = event.getCapaciteMax() - placesReservees;
-            double tauxRemplissage = (double) placesReservees / event.getCapaciteMax() * 100;
-
-            // Calculer le revenu total
-            double revenuTotal = event.getReservations().stream()
-                    .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                    .mapToDouble(r -> r.getMontantTotal())
-                    .sum();
-
-            return EventDTO.builder()
-                    .id(event.getId())
-                    .titre(event.getTitre())
-                    .description(event.getDescription())
-                    .categorie(event.getCategorie())
-                    .dateDebut(event.getDateDebut())
-                    .dateFin(event.getDateFin())
-                    .lieu(event.getLieu())
-                    .ville(event.getVille())
-                    .capaciteMax(event.getCapaciteMax())
-                    .prixUnitaire(event.getPrixUnitaire())
-                    .imageUrl(event.getImageUrl())
-                    .statut(event.getStatut())
-                    .dateCreation(event.getDateCreation())
-                    .dateModification(event.getDateModification())
-                    .placesReservees(placesReservees)
-                    .placesDisponibles(placesDisponibles)
-                    .tauxRemplissage(tauxRemplissage)
-                    .revenuTotal(revenuTotal)
-                    .isReservable(event.getStatut() == EventStatut.PUBLIE &&
-                            LocalDateTime.now().isBefore(event.getDateDebut()) &&
-                            placesDisponibles > 0)
-                    .isModifiable(event.getStatut() != EventStatut.TERMINE &&
-                            event.getStatut() != EventStatut.ANNULE)
-                    .organisateurId(event.getOrganisateur().getId())
-                    .organisateurNom(event.getOrganisateur().getNom())
-                    .organisateurPrenom(event.getOrganisateur().getPrenom())
-                    .organisateurNomComplet(event.getOrganisateur().getNomComplet())
-                    .organisateurEmail(event.getOrganisateur().getEmail())
-                    .organisateurTelephone(event.getOrganisateur().getTelephone())
-                    .organisateurRole(event.getOrganisateur().getRole().getLabel())
-                    .build();
-        }
 }
\ No newline at end of file
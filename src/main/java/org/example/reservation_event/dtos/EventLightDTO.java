@@ -10,6 +10,10 @@ import org.example.reservation_event.classes.Event;
 
 import java.time.LocalDateTime;
 
+/**
+ * Carte d'événement des listes publiques. Sans revenu : les places viennent du compteur seatsReserved,
+ * aucune requête d'agrégat par ligne.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
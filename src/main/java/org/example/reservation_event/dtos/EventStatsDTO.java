@@ -0,0 +1,22 @@
+package org.example.reservation_event.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agrégats d'un événement calculés en SQL (sans charger les réservations)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventStatsDTO {
+
+    private Long eventId;
+    private Long placesReservees; // Places CONFIRMEE + EN_ATTENTE
+    private Double revenuTotal;   // Montant des réservations CONFIRMEE
+
+    public static EventStatsDTO empty(Long eventId) {
+        return new EventStatsDTO(eventId, 0L, 0.0);
+    }
+}
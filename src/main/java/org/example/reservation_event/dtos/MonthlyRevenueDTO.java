@@ -0,0 +1,25 @@
+package org.example.reservation_event.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRevenueDTO {
+
+    private Integer annee;
+    private Integer mois;
+    private Double revenu; // Montant des réservations CONFIRMEE du mois
+
+    /**
+     * Libellé du mois pour les graphiques (ex: "janv. 2025")
+     */
+    public String getLabel() {
+        return YearMonth.of(annee, mois).format(DateTimeFormatter.ofPattern("MMM yyyy"));
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.reservation_event.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistiques d'un organisateur calculées en une seule requête d'agrégation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizerStatsDTO {
+
+    private Long totalEvents;
+    private Long publishedEvents;
+    private Long draftEvents;
+    private Long totalReservations; // Réservations CONFIRMEE
+    private Double totalRevenue;    // Montant des réservations CONFIRMEE
+
+    public static OrganizerStatsDTO empty() {
+        return new OrganizerStatsDTO(0L, 0L, 0L, 0L, 0.0);
+    }
+}
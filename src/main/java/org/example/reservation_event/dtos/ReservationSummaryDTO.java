@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.Enums.ReservationStatut;
 
@@ -40,16 +41,14 @@ public class ReservationSummaryDTO {
     private String utilisateurPrenom;
     private String utilisateurEmail;
     private EventStatut evenementStatut;
-    // Modifie le constructeur @AllArgsConstructor pour inclure evenementStatut
-// OU crée un constructeur personnalisé :
-
+    // Constructeur de la projection JPQL findReservationsByUserAsDTO (e.categorie est un enum)
     public ReservationSummaryDTO(Long id, String codeReservation, String commentaire,
                                  LocalDateTime dateReservation, Double montantTotal,
                                  Integer nombrePlaces, ReservationStatut statut,
                                  Long evenementId, String evenementTitre,
                                  LocalDateTime evenementDateDebut, LocalDateTime evenementDateFin,
                                  String evenementLieu, String evenementVille,
-                                 Double evenementPrixUnitaire, String evenementCategorie,
+                                 Double evenementPrixUnitaire, EventCategorie evenementCategorie,
                                  Long utilisateurId, String utilisateurNom,
                                  String utilisateurPrenom, String utilisateurEmail,
                                  EventStatut evenementStatut) { // ⭐ AJOUT
@@ -68,13 +67,28 @@ public class ReservationSummaryDTO {
         this.evenementLieu = evenementLieu;
         this.evenementVille = evenementVille;
         this.evenementPrixUnitaire = evenementPrixUnitaire;
-        this.evenementCategorie = evenementCategorie;
+        this.evenementCategorie = evenementCategorie != null ? evenementCategorie.name() : null;
         this.utilisateurId = utilisateurId;
         this.utilisateurNom = utilisateurNom;
         this.utilisateurPrenom = utilisateurPrenom;
         this.utilisateurEmail = utilisateurEmail;
         this.evenementStatut = evenementStatut;
     }
+    // Constructeur de la projection JPQL findUpcomingReservationsByUser
+    public ReservationSummaryDTO(Long id, String codeReservation, Integer nombrePlaces, Double montantTotal,
+                                 LocalDateTime dateReservation, ReservationStatut statut,
+                                 String evenementTitre, LocalDateTime evenementDateDebut, String evenementLieu) {
+        this.id = id;
+        this.codeReservation = codeReservation;
+        this.nombrePlaces = nombrePlaces;
+        this.montantTotal = montantTotal;
+        this.dateReservation = dateReservation;
+        this.statut = statut;
+        this.evenementTitre = evenementTitre;
+        this.evenementDateDebut = evenementDateDebut;
+        this.evenementLieu = evenementLieu;
+    }
+
     public ReservationSummaryDTO(Long id) {
         this.id = id;
     }
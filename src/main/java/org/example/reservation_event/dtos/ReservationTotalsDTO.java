@@ -0,0 +1,25 @@
+package org.example.reservation_event.dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totaux d'un ensemble de réservations filtré, calculés en SQL
+ */
+@Data
+@NoArgsConstructor
+public class ReservationTotalsDTO {
+
+    private long total;
+    private long confirmees;
+    private long places;   // Places des réservations non annulées
+    private double revenu; // Montant des réservations CONFIRMEE
+
+    // Number : les SUM/COUNT JPQL peuvent remonter Integer, Long ou null selon la base
+    public ReservationTotalsDTO(Number total, Number confirmees, Number places, Number revenu) {
+        this.total = total != null ? total.longValue() : 0L;
+        this.confirmees = confirmees != null ? confirmees.longValue() : 0L;
+        this.places = places != null ? places.longValue() : 0L;
+        this.revenu = revenu != null ? revenu.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.reservation_event.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.reservation_event.Enums.EventCategorie;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopRatedEventDTO {
+
+    private Long eventId;
+    private String titre;
+    private EventCategorie categorie;
+    private Double averageRating;
+    private Long reviewCount;
+}
@@ -0,0 +1,85 @@
+package org.example.reservation_event.email;
+
+import org.example.reservation_event.classes.EmailOutbox;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.repositories.ReservationRepository;
+import org.example.reservation_event.services.EmailOutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Vide la table email_outbox : prend les emails dus et les envoie sur le pool emailOutboxExecutor.
+ * En cas d'échec, l'email est reprogrammé avec un délai croissant (voir EmailOutboxService.markFailed).
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final ReservationRepository reservationRepository;
+    private final ThreadPoolTaskExecutor executor;
+
+    public EmailOutboxWorker(EmailOutboxService emailOutboxService,
+                             EmailService emailService,
+                             ReservationRepository reservationRepository,
+                             @Qualifier("emailOutboxExecutor") ThreadPoolTaskExecutor executor) {
+        this.emailOutboxService = emailOutboxService;
+        this.emailService = emailService;
+        this.reservationRepository = reservationRepository;
+        this.executor = executor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-delay-ms:2000}")
+    public void drain() {
+        // Ne prend que ce que le pool peut accepter : le reste attend en base
+        int capacity = executor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        List<EmailOutbox> due = emailOutboxService.claimDue(capacity);
+        for (EmailOutbox entry : due) {
+            try {
+                executor.execute(() -> deliver(entry));
+            } catch (TaskRejectedException e) {
+                // Reste EN_COURS : sera repris à l'expiration du bail
+                logger.warn("Pool email saturé, email {} reporté", entry.getId());
+            }
+        }
+    }
+
+    void deliver(EmailOutbox entry) {
+        try {
+            Optional<Reservation> reservation = reservationRepository.findByIdWithAllRelations(entry.getReservationId());
+            if (reservation.isEmpty()) {
+                emailOutboxService.markFailed(entry.getId(), "Réservation " + entry.getReservationId() + " introuvable");
+                return;
+            }
+
+            boolean sent = switch (entry.getType()) {
+                case RESERVATION_CONFIRMATION -> emailService.sendReservationConfirmation(reservation.get());
+                case RESERVATION_CANCELLATION -> emailService.sendReservationCancellation(reservation.get(), entry.getRaison());
+            };
+
+            if (sent) {
+                emailOutboxService.markSent(entry.getId());
+            } else {
+                emailOutboxService.markFailed(entry.getId(), "Envoi SMTP refusé");
+                logger.warn("Échec d'envoi de l'email {} ({}), tentative {}", entry.getId(), entry.getType(), entry.getTentatives());
+            }
+        } catch (Exception e) {
+            emailOutboxService.markFailed(entry.getId(), e.getMessage());
+            logger.error("Erreur lors de l'envoi de l'email {}: {}", entry.getId(), e.getMessage());
+        }
+    }
+}
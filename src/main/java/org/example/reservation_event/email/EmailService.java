@@ -1,41 +1,98 @@
 package org.example.reservation_event.email;
 
+import io.micrometer.core.instrument.Timer;
 import org.example.reservation_event.classes.Reservation;
-import org.springframework.mail.SimpleMailMessage;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 @Service
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
+    private static final String FROM = "reservation.event.app@gmail.com";
+
+    private static final DateTimeFormatter SHORT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter FRENCH_DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'à' HH'h'mm", new Locale("fr", "FR"));
+
     private final JavaMailSender mailSender;
+    private final OperationMetrics operationMetrics;
+    private final EmailTemplateEngine templateEngine;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, OperationMetrics operationMetrics,
+                        EmailTemplateEngine templateEngine) {
         this.mailSender = mailSender;
+        this.operationMetrics = operationMetrics;
+        this.templateEngine = templateEngine;
     }
 
     public boolean sendVerificationEmail(String toEmail, String verificationCode) {
+        return timed("verification", () -> doSendVerificationEmail(toEmail, verificationCode));
+    }
+
+    public boolean sendEmailChangeVerification(String toEmail, String verificationCode) {
+        return timed("email_change", () -> doSendEmailChangeVerification(toEmail, verificationCode));
+    }
+
+    public boolean sendPasswordResetEmail(String toEmail, String resetCode) {
+        return timed("password_reset", () -> doSendPasswordResetEmail(toEmail, resetCode));
+    }
+
+    public boolean sendReservationConfirmation(Reservation reservation) {
+        return timed("confirmation", () -> doSendReservationConfirmation(reservation));
+    }
+
+    public boolean sendReservationCancellation(Reservation reservation) {
+        return sendReservationCancellation(reservation, null);
+    }
+
+    /**
+     * Envoie un email d'annulation de réservation avec raison
+     */
+    public boolean sendReservationCancellation(Reservation reservation, String reason) {
+        return timed("cancellation", () -> doSendReservationCancellation(reservation, reason));
+    }
+
+    /**
+     * Envoie un rappel 24h avant l'événement
+     */
+    public boolean sendEventReminder(Reservation reservation) {
+        return timed("reminder", () -> doSendEventReminder(reservation));
+    }
+
+    // Timer email.send par type de mail ; les envois en échec renvoient false, d'où outcome=failure
+    private boolean timed(String type, BooleanSupplier send) {
+        Timer.Sample sample = operationMetrics.start();
+        boolean sent = send.getAsBoolean();
+        operationMetrics.stop(sample, "email.send", sent, "type", type);
+        return sent;
+    }
+
+    private boolean doSendVerificationEmail(String toEmail, String verificationCode) {
         try {
             System.out.println("📧 Attempting to send verification email to: " + toEmail);
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("reservation.event.app@gmail.com");
-            message.setTo(toEmail);
-            message.setSubject("Vérification de votre email - Reservation Event");
-            message.setText(
-                    "Bonjour,\n\n" +
-                            "Merci de vous être inscrit sur Reservation Event.\n\n" +
-                            "Votre code de vérification est : " + verificationCode + "\n\n" +
-                            "Ce code expirera dans 10 minutes.\n\n" +
-                            "Si vous n'avez pas créé de compte, veuillez ignorer cet email.\n\n" +
-                            "Cordialement,\nL'équipe Reservation Event"
-            );
-
-            mailSender.send(message);
+            mailSender.send(buildMessage(toEmail, "Vérification de votre email - Reservation Event",
+                    EmailTemplate.VERIFICATION, Map.of("code", verificationCode)));
             System.out.println("✅ Email sent successfully to: " + toEmail);
             return true;
 
@@ -46,22 +103,10 @@ public class EmailService {
         }
     }
 
-    public boolean sendEmailChangeVerification(String toEmail, String verificationCode) {
+    private boolean doSendEmailChangeVerification(String toEmail, String verificationCode) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("reservation.event.app@gmail.com");
-            message.setTo(toEmail);
-            message.setSubject("Vérification de changement d'email - Reservation Event");
-            message.setText(
-                    "Bonjour,\n\n" +
-                            "Vous avez demandé à changer votre adresse email sur Reservation Event.\n\n" +
-                            "Votre code de vérification est : " + verificationCode + "\n\n" +
-                            "Ce code expirera dans 10 minutes.\n\n" +
-                            "Si vous n'êtes pas à l'origine de cette demande, veuillez ignorer cet email.\n\n" +
-                            "Cordialement,\nL'équipe Reservation Event"
-            );
-
-            mailSender.send(message);
+            mailSender.send(buildMessage(toEmail, "Vérification de changement d'email - Reservation Event",
+                    EmailTemplate.EMAIL_CHANGE, Map.of("code", verificationCode)));
             return true;
 
         } catch (Exception e) {
@@ -69,26 +114,12 @@ public class EmailService {
         }
     }
 
-    public boolean sendPasswordResetEmail(String toEmail, String resetCode) {
+    private boolean doSendPasswordResetEmail(String toEmail, String resetCode) {
         try {
             System.out.println("🔑 Attempting to send password reset email to: " + toEmail);
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("reservation.event.app@gmail.com");
-            message.setTo(toEmail);
-            message.setSubject("Réinitialisation de votre mot de passe - Reservation Event");
-            message.setText(
-                    "Bonjour,\n\n" +
-                            "Vous avez demandé à réinitialiser votre mot de passe sur Reservation Event.\n\n" +
-                            "Votre code de vérification est : " + resetCode + "\n\n" +
-                            "Ce code expirera dans 10 minutes.\n\n" +
-                            "Si vous n'êtes pas à l'origine de cette demande, veuillez ignorer cet email " +
-                            "et votre mot de passe restera inchangé.\n\n" +
-                            "Pour des raisons de sécurité, ne partagez jamais ce code avec qui que ce soit.\n\n" +
-                            "Cordialement,\nL'équipe Reservation Event"
-            );
-
-            mailSender.send(message);
+            mailSender.send(buildMessage(toEmail, "Réinitialisation de votre mot de passe - Reservation Event",
+                    EmailTemplate.PASSWORD_RESET, Map.of("code", resetCode)));
             System.out.println("✅ Password reset email sent successfully to: " + toEmail);
             return true;
 
@@ -98,53 +129,20 @@ public class EmailService {
             return false;
         }
     }
-    public boolean sendReservationConfirmation(Reservation reservation) {
+
+    private boolean doSendReservationConfirmation(Reservation reservation) {
         try {
             System.out.println("🎟️ Attempting to send reservation confirmation email to: "
                     + reservation.getUtilisateur().getEmail());
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("reservation.event.app@gmail.com");
-            message.setTo(reservation.getUtilisateur().getEmail());
-            message.setSubject("Confirmation de votre réservation - Reservation Event");
-
-            String eventName = reservation.getEvenement().getTitre();
-            String eventDate = reservation.getEvenement().getDateDebut().format(
-                    java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            String venue = reservation.getEvenement().getLieu() + ", " + reservation.getEvenement().getVille();
-
-            message.setText(
-                    "Bonjour " + reservation.getUtilisateur().getPrenom() + ",\n\n" +
-                            "Nous vous confirmons votre réservation pour l'événement suivant :\n\n" +
-                            "📌 Événement : " + eventName + "\n" +
-                            "📅 Date : " + eventDate + "\n" +
-                            "📍 Lieu : " + venue + "\n" +
-                            "🎟️ Code de réservation : " + reservation.getCodeReservation() + "\n" +
-                            "👥 Nombre de places : " + reservation.getNombrePlaces() + "\n" +
-                            "💰 Montant total : " + String.format("%.2f DH", reservation.getMontantTotal()) + "\n\n" +
-
-                            "📋 Récapitulatif de votre réservation :\n" +
-                            "----------------------------------------\n" +
-                            "Code : " + reservation.getCodeReservation() + "\n" +
-                            "Événement : " + eventName + "\n" +
-                            "Date : " + eventDate + "\n" +
-                            "Lieu : " + venue + "\n" +
-                            "Nombre de places : " + reservation.getNombrePlaces() + "\n" +
-                            "Prix unitaire : " + String.format("%.2f DH", reservation.getEvenement().getPrixUnitaire()) + "\n" +
-                            "Montant total : " + String.format("%.2f DH", reservation.getMontantTotal()) + "\n" +
-                            "Statut : " + reservation.getStatut().name() + "\n\n" +
-
-                            "ℹ️ Informations importantes :\n" +
-                            "• Présentez ce code à l'entrée de l'événement.\n" +
-                            "• Vous pouvez annuler votre réservation jusqu'à 48h avant l'événement.\n" +
-                            "• Conservez cet email comme justificatif de paiement.\n\n" +
-
-                            "Pour gérer vos réservations, connectez-vous à votre compte.\n\n" +
-                            "Cordialement,\n" +
-                            "L'équipe Reservation Event"
-            );
-
-            mailSender.send(message);
+            Map<String, Object> model = reservationModel(reservation);
+            model.put("date", reservation.getEvenement().getDateDebut().format(SHORT_DATE_FORMATTER));
+            model.put("prixUnitaire", formatMontant(reservation.getEvenement().getPrixUnitaire()));
+            model.put("statut", reservation.getStatut().name());
+
+            mailSender.send(buildMessage(reservation.getUtilisateur().getEmail(),
+                    "Confirmation de votre réservation - Reservation Event",
+                    EmailTemplate.RESERVATION_CONFIRMATION, model));
             System.out.println("✅ Reservation confirmation email sent successfully to: "
                     + reservation.getUtilisateur().getEmail());
             return true;
@@ -156,92 +154,27 @@ public class EmailService {
         }
     }
 
-    public boolean sendReservationCancellation(Reservation reservation) {
-        return sendReservationCancellation(reservation, null);
-    }
-
-    /**
-     * Envoie un email d'annulation de réservation avec raison
-     */
-    public boolean sendReservationCancellation(Reservation reservation, String reason) {
+    private boolean doSendReservationCancellation(Reservation reservation, String reason) {
         try {
             System.out.println("📧 Tentative d'envoi d'email d'annulation pour la réservation: "
                     + reservation.getCodeReservation());
 
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("reservation.event.app@gmail.com");
-            message.setTo(reservation.getUtilisateur().getEmail());
-            message.setSubject("Confirmation d'annulation - Réservation #" + reservation.getCodeReservation());
-
-            // Formatage des dates
-            DateTimeFormatter frenchDateTimeFormatter = DateTimeFormatter.ofPattern(
-                    "EEEE d MMMM yyyy 'à' HH'h'mm",
-                    new Locale("fr", "FR")
-            );
-            DateTimeFormatter simpleDateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-            String eventName = reservation.getEvenement().getTitre();
-            String eventDate = reservation.getEvenement().getDateDebut().format(frenchDateTimeFormatter);
-            String venue = reservation.getEvenement().getLieu() + ", " + reservation.getEvenement().getVille();
-            String organizerName = reservation.getEvenement().getOrganisateur().getPrenom() + " "
-                    + reservation.getEvenement().getOrganisateur().getNom();
-            String cancellationDate = LocalDateTime.now().format(simpleDateFormatter);
-
-            // Texte de la raison
-            String reasonText = "";
+            Map<String, Object> model = reservationModel(reservation);
+            model.put("date", reservation.getEvenement().getDateDebut().format(FRENCH_DATE_TIME_FORMATTER));
+            model.put("organisateur", reservation.getEvenement().getOrganisateur().getPrenom() + " "
+                    + reservation.getEvenement().getOrganisateur().getNom());
+            model.put("dateAnnulation", LocalDateTime.now().format(SHORT_DATE_FORMATTER));
             if (reason != null && !reason.trim().isEmpty()) {
-                reasonText = "\nRaison de l'annulation : " + reason.trim() + "\n";
+                model.put("raison", reason.trim());
             }
 
-            // Construction du message
-            StringBuilder emailContent = new StringBuilder();
-            emailContent.append("Bonjour ").append(reservation.getUtilisateur().getPrenom()).append(",\n\n");
-            emailContent.append("Nous vous confirmons l'annulation de votre réservation.\n\n");
-
-            emailContent.append("📋 DÉTAILS DE LA RÉSERVATION ANNULÉE\n");
-            emailContent.append("════════════════════════════════════════════\n");
-            emailContent.append("🎟️  Code : ").append(reservation.getCodeReservation()).append("\n");
-            emailContent.append("📌  Événement : ").append(eventName).append("\n");
-            emailContent.append("📅  Date : ").append(eventDate).append("\n");
-            emailContent.append("📍  Lieu : ").append(venue).append("\n");
-            emailContent.append("👤  Organisateur : ").append(organizerName).append("\n");
-            emailContent.append("👥  Places : ").append(reservation.getNombrePlaces()).append("\n");
-            emailContent.append("💰  Montant total : ").append(String.format("%.2f DH", reservation.getMontantTotal())).append("\n");
-            emailContent.append("🗓️  Date d'annulation : ").append(cancellationDate).append("\n");
-            emailContent.append(reasonText);
-
-            emailContent.append("\n💳  INFORMATIONS DE REMBOURSEMENT\n");
-            emailContent.append("════════════════════════════════════════════\n");
-            emailContent.append("• Montant à rembourser : ").append(String.format("%.2f DH", reservation.getMontantTotal())).append("\n");
-            emailContent.append("• Mode de remboursement : Sur le compte bancaire d'origine\n");
-            emailContent.append("• Délai de traitement : 5 à 7 jours ouvrables\n");
-            emailContent.append("• Référence de transaction : CANCEL-").append(reservation.getCodeReservation()).append("\n");
-
-            emailContent.append("\n❓  QUESTIONS FRÉQUENTES\n");
-            emailContent.append("════════════════════════════════════════════\n");
-            emailContent.append("• Quand vais-je recevoir mon remboursement ?\n");
-            emailContent.append("  Le délai dépend de votre banque, généralement 5-7 jours.\n\n");
-            emailContent.append("• Puis-je réserver un autre événement ?\n");
-            emailContent.append("  Oui ! Consultez nos événements disponibles sur la plateforme.\n\n");
-
-            emailContent.append("\n📞  ASSISTANCE\n");
-            emailContent.append("════════════════════════════════════════════\n");
-            emailContent.append("Pour toute question, contactez-nous à :\n");
-            emailContent.append("• Email : reservation.event.app@gmail.com\n");
-            emailContent.append("• Horaires : Lundi-Vendredi 9h-18h\n");
-
-            emailContent.append("\nNous sommes désolés de vous voir partir et espérons vous revoir bientôt !\n\n");
-            emailContent.append("Cordialement,\n");
-            emailContent.append("L'équipe Reservation Event\n");
-            emailContent.append("🎭 Votre plateforme de réservation d'événements culturels");
-
-            message.setText(emailContent.toString());
-
-            mailSender.send(message);
+            mailSender.send(buildMessage(reservation.getUtilisateur().getEmail(),
+                    "Confirmation d'annulation - Réservation #" + reservation.getCodeReservation(),
+                    EmailTemplate.RESERVATION_CANCELLATION, model));
 
             System.out.println("✅ Email d'annulation envoyé avec succès pour: " + reservation.getCodeReservation());
             System.out.println("   Destinataire: " + reservation.getUtilisateur().getEmail());
-            System.out.println("   Montant remboursé: " + String.format("%.2f DH", reservation.getMontantTotal()));
+            System.out.println("   Montant remboursé: " + formatMontant(reservation.getMontantTotal()));
 
             return true;
 
@@ -253,44 +186,9 @@ public class EmailService {
             return false;
         }
     }
-    /**
-     * Envoie un rappel 24h avant l'événement
-     */
-    public boolean sendEventReminder(Reservation reservation) {
+    private boolean doSendEventReminder(Reservation reservation) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("reservation.event.app@gmail.com");
-            message.setTo(reservation.getUtilisateur().getEmail());
-            message.setSubject("Rappel : Votre événement est demain ! - Reservation Event");
-
-            String eventName = reservation.getEvenement().getTitre();
-            String eventDate = reservation.getEvenement().getDateDebut().format(
-                    java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            String venue = reservation.getEvenement().getLieu() + ", " + reservation.getEvenement().getVille();
-            String organizer = reservation.getEvenement().getOrganisateur().getNom() + " "
-                    + reservation.getEvenement().getOrganisateur().getPrenom();
-
-            message.setText(
-                    "Bonjour " + reservation.getUtilisateur().getPrenom() + ",\n\n" +
-                            "Rappel : Votre événement est prévu pour DEMAIN !\n\n" +
-                            "📌 Événement : " + eventName + "\n" +
-                            "📅 Date et heure : " + eventDate + "\n" +
-                            "📍 Lieu : " + venue + "\n" +
-                            "🎟️ Code de réservation : " + reservation.getCodeReservation() + "\n" +
-                            "👥 Nombre de places : " + reservation.getNombrePlaces() + "\n" +
-                            "👤 Organisateur : " + organizer + "\n\n" +
-
-                            "📋 Informations pratiques :\n" +
-                            "• Présentez-vous 30 minutes avant le début de l'événement.\n" +
-                            "• Ayez votre code de réservation (ci-dessus) prêt à présenter.\n" +
-                            "• En cas de retard, votre place pourra être attribuée à d'autres personnes.\n\n" +
-
-                            "Bon événement !\n\n" +
-                            "Cordialement,\n" +
-                            "L'équipe Reservation Event"
-            );
-
-            mailSender.send(message);
+            mailSender.send(buildEventReminder(reservation));
             return true;
 
         } catch (Exception e) {
@@ -298,4 +196,96 @@ public class EmailService {
             return false;
         }
     }
+
+    /**
+     * Envoie les rappels d'un lot de réservations sur une seule connexion SMTP
+     * (une session et un handshake STARTTLS pour tout le lot au lieu d'un par email)
+     *
+     * @return ids des réservations dont le rappel n'a pas pu être envoyé
+     */
+    public Set<Long> sendEventReminders(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return Set.of();
+        }
+        Timer.Sample sample = operationMetrics.start();
+
+        // Les échecs sont rendus par message : on retrouve la réservation par identité
+        Map<MimeMessage, Long> reservationIds = new IdentityHashMap<>();
+        Set<Long> failed = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            try {
+                reservationIds.put(buildEventReminder(reservation), reservation.getId());
+            } catch (Exception e) {
+                logger.error("Construction du rappel impossible pour la réservation {}", reservation.getId(), e);
+                failed.add(reservation.getId());
+            }
+        }
+
+        try {
+            mailSender.send(reservationIds.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Échecs partiels (ou connexion impossible : tous les messages y figurent)
+            e.getFailedMessages().keySet().forEach(message -> {
+                Long id = reservationIds.get(message);
+                if (id != null) {
+                    failed.add(id);
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                failed.addAll(reservationIds.values());
+            }
+            logger.error("Échec d'envoi de {} rappel(s) sur {} du lot", failed.size(), reservations.size(), e);
+        } catch (Exception e) {
+            failed.addAll(reservationIds.values());
+            logger.error("Échec d'envoi du lot de {} rappel(s)", reservations.size(), e);
+        }
+
+        operationMetrics.stop(sample, "email.send_batch", failed.isEmpty(), "type", "reminder");
+        operationMetrics.increment("email.batch.messages", reservations.size() - failed.size(), "outcome", "sent");
+        operationMetrics.increment("email.batch.messages", failed.size(), "outcome", "failed");
+        return failed;
+    }
+
+    private MimeMessage buildEventReminder(Reservation reservation) throws MessagingException {
+        Map<String, Object> model = reservationModel(reservation);
+        model.put("date", reservation.getEvenement().getDateDebut().format(SHORT_DATE_FORMATTER));
+        model.put("organisateur", reservation.getEvenement().getOrganisateur().getNom() + " "
+                + reservation.getEvenement().getOrganisateur().getPrenom());
+
+        return buildMessage(reservation.getUtilisateur().getEmail(),
+                "Rappel : Votre événement est demain ! - Reservation Event",
+                EmailTemplate.EVENT_REMINDER, model);
+    }
+
+    // Champs communs aux emails de réservation
+    private Map<String, Object> reservationModel(Reservation reservation) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("prenom", reservation.getUtilisateur().getPrenom());
+        model.put("evenement", reservation.getEvenement().getTitre());
+        model.put("lieu", reservation.getEvenement().getLieu() + ", " + reservation.getEvenement().getVille());
+        model.put("code", reservation.getCodeReservation());
+        model.put("places", reservation.getNombrePlaces());
+        model.put("montant", formatMontant(reservation.getMontantTotal()));
+        return model;
+    }
+
+    private static String formatMontant(Double montant) {
+        return String.format("%.2f DH", montant);
+    }
+
+    /**
+     * Email multipart texte + HTML rendu à partir des modèles précompilés
+     */
+    private MimeMessage buildMessage(String to, String subject, EmailTemplate template, Map<String, Object> model)
+            throws MessagingException {
+        EmailTemplateEngine.RenderedEmail rendered = templateEngine.render(template, model);
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(FROM);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(rendered.text(), rendered.html());
+        return message;
+    }
 }
\ No newline at end of file
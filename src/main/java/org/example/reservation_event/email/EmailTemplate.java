@@ -0,0 +1,24 @@
+package org.example.reservation_event.email;
+
+/**
+ * Modèles d'emails : chacun a une version texte (nom.txt) et HTML (nom.html)
+ * dans app.email.templates-location.
+ */
+public enum EmailTemplate {
+    VERIFICATION("verification"),
+    EMAIL_CHANGE("email_change"),
+    PASSWORD_RESET("password_reset"),
+    RESERVATION_CONFIRMATION("confirmation"),
+    RESERVATION_CANCELLATION("cancellation"),
+    EVENT_REMINDER("reminder");
+
+    private final String fileName;
+
+    EmailTemplate(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.reservation_event.email;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Modèles Mustache des emails, compilés une seule fois au démarrage.
+ * Par défaut lus dans le classpath ; app.email.templates-location=file:/chemin/ permet de
+ * les modifier sans recompiler (pris en compte au redémarrage).
+ */
+@Component
+public class EmailTemplateEngine {
+
+    public record RenderedEmail(String text, String html) {
+    }
+
+    private record CompiledTemplate(Template text, Template html) {
+    }
+
+    // Buffer de rendu réutilisé par thread (reminders envoyés en parallèle)
+    private static final ThreadLocal<StringWriter> BUFFER = ThreadLocal.withInitial(() -> new StringWriter(4096));
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final Map<EmailTemplate, CompiledTemplate> templates = new EnumMap<>(EmailTemplate.class);
+
+    public EmailTemplateEngine(ResourceLoader resourceLoader,
+                               @Value("${app.email.templates-location:classpath:email-templates/}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    @PostConstruct
+    public void compileTemplates() {
+        // Les partiels ({{> _header}}) sont des fragments HTML du même dossier
+        Mustache.Compiler html = Mustache.compiler()
+                .defaultValue("")
+                .withLoader(name -> open(name + ".html"));
+        Mustache.Compiler text = html.escapeHTML(false);
+
+        for (EmailTemplate template : EmailTemplate.values()) {
+            try (Reader textReader = open(template.getFileName() + ".txt");
+                 Reader htmlReader = open(template.getFileName() + ".html")) {
+                templates.put(template, new CompiledTemplate(text.compile(textReader), html.compile(htmlReader)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Modèle d'email introuvable : " + template.getFileName(), e);
+            }
+        }
+    }
+
+    public RenderedEmail render(EmailTemplate template, Map<String, Object> model) {
+        CompiledTemplate compiled = templates.get(template);
+        return new RenderedEmail(execute(compiled.text(), model), execute(compiled.html(), model));
+    }
+
+    private String execute(Template template, Map<String, Object> model) {
+        StringWriter buffer = BUFFER.get();
+        buffer.getBuffer().setLength(0);
+        template.execute(model, buffer);
+        return buffer.toString();
+    }
+
+    private Reader open(String fileName) throws IOException {
+        Resource resource = resourceLoader.getResource(location + fileName);
+        return new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.reservation_event.images;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sert les images du store sous une URL qui ne change jamais de contenu :
+ * /images/events/{sha256}/{card|detail|hero}.
+ *
+ * La clé étant l'empreinte du fichier, la réponse est cachée un an par le navigateur
+ * (Cache-Control immutable) et revalidée par ETag / If-None-Match. Le fichier est envoyé
+ * sans copie en mémoire : sendfile de Tomcat quand le connecteur le permet, sinon
+ * FileChannel.transferTo vers le flux de la réponse.
+ */
+@RestController
+public class ImageController {
+
+    public static final String BASE_PATH = "images/events";
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Attributs de requête du support sendfile de Tomcat (NIO / NIO2)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ImageStore imageStore;
+
+    /**
+     * URL (relative à la racine de l'application) d'une image du store dans une taille donnée
+     */
+    public static String urlOf(String key, ImageVariant variant) {
+        return BASE_PATH + "/" + key + "/" + variant.getPathSegment();
+    }
+
+    @GetMapping("/" + BASE_PATH + "/{key}/{variant}")
+    public void serveImage(@PathVariable String key, @PathVariable String variant,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageVariant size = ImageVariant.fromPathSegment(variant);
+        Path file = size != null ? imageStore.resolve(key, size) : null;
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Le fichier servi pour (clé, taille) ne change jamais : son nom suffit à distinguer les versions
+        String etag = "\"" + key + "-" + file.getFileName() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        response.setContentType(contentType(file));
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envoie le fichier lui-même après le retour de la méthode (zéro copie noyau)
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+
+    /**
+     * If-None-Match : liste d'ETags séparés par des virgules, éventuellement faibles (W/), ou *
+     */
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String contentType(Path file) {
+        String name = file.getFileName().toString();
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+}
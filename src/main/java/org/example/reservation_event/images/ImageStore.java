@@ -0,0 +1,379 @@
+package org.example.reservation_event.images;
+
+import jakarta.annotation.PostConstruct;
+import org.example.reservation_event.utils.ImageUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stockage des images d'événements adressé par contenu.
+ *
+ * Chaque image est identifiée par le SHA-256 de ses octets (la clé enregistrée dans Event.imageUrl)
+ * et rangée une seule fois sous app.images.dir/ab/abcdef.../ avec l'original et ses variantes
+ * redimensionnées (card, detail, hero) générées à l'upload. Un même fichier envoyé deux fois
+ * n'est stocké qu'une fois. Le dossier d'une image est préparé dans tmp/ puis déplacé
+ * atomiquement : une image visible est toujours complète.
+ *
+ * Les restes de tmp/ (upload interrompu, serveur arrêté pendant un import, formulaire jamais
+ * fermé proprement) sont supprimés au démarrage puis toutes les heures, passé app.images.tmp-max-age.
+ */
+@Component
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private static final String ORIGINAL = "original";
+
+    // Garde-fou contre les images décompressées démesurées (~40 mégapixels)
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final Path root;
+    private final Path tempDir;
+    private final Duration tempMaxAge;
+
+    public ImageStore(@Value("${app.images.dir:./data/images}") String directory,
+                      @Value("${app.images.tmp-max-age:24h}") Duration tempMaxAge) {
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        this.tempMaxAge = tempMaxAge;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(tempDir);
+        purgeTempDirectory();
+        ImageUtils.setImageStore(this);
+        logger.info("Images d'événements stockées dans {}", root);
+    }
+
+    /**
+     * Supprime les fichiers upload-*.bin et dossiers de préparation de tmp/ plus anciens que tempMaxAge.
+     * Le seuil dépasse largement la durée d'un import ou d'une session : un upload en cours n'est jamais touché.
+     */
+    @Scheduled(cron = "0 17 * * * ?")
+    public void purgeTempDirectory() {
+        Instant limit = Instant.now().minus(tempMaxAge);
+        int deleted = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(tempDir)) {
+            for (Path entry : entries) {
+                try {
+                    if (Files.getLastModifiedTime(entry).toInstant().isBefore(limit)) {
+                        deleteRecursively(entry);
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    // Supprimé entre-temps (import ou discard concurrent)
+                    logger.debug("Entrée temporaire ignorée {}", entry, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Nettoyage impossible du dossier temporaire {}", tempDir, e);
+            return;
+        }
+        if (deleted > 0) {
+            logger.info("{} fichier(s) temporaire(s) d'images supprimé(s) de {}", deleted, tempDir);
+        }
+    }
+
+    /**
+     * Vrai si la valeur de Event.imageUrl est une clé du store (et non un ancien nom de fichier ou une URL)
+     */
+    public static boolean isContentKey(String imageUrl) {
+        return imageUrl != null && CONTENT_KEY.matcher(imageUrl).matches();
+    }
+
+    /**
+     * Stocke une image lue depuis un flux et génère ses variantes.
+     *
+     * @return Clé de l'image (SHA-256 hexadécimal)
+     * @throws IOException Format non reconnu, image trop grande ou erreur d'écriture
+     */
+    public String store(InputStream in) throws IOException {
+        Path upload = Files.createTempFile(tempDir, "upload-", ".bin");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(upload), digest)) {
+                in.transferTo(out);
+            }
+            return importFile(upload, HexFormat.of().formatHex(digest.digest()));
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * Range un fichier déjà écrit sur disque (dans le même système de fichiers de préférence)
+     * sous sa clé et génère ses variantes. Le fichier source est déplacé ou supprimé.
+     *
+     * @param file Fichier uploadé
+     * @param sha256 Empreinte SHA-256 hexadécimale du fichier
+     * @return Clé de l'image
+     */
+    public String importFile(Path file, String sha256) throws IOException {
+        String key = sha256.toLowerCase();
+        if (!isContentKey(key)) {
+            throw new IllegalArgumentException("Empreinte SHA-256 invalide : " + sha256);
+        }
+        Path target = directoryOf(key);
+        if (Files.isDirectory(target)) {
+            // Déjà stockée : contenu identique
+            Files.deleteIfExists(file);
+            return key;
+        }
+
+        String extension = detectExtension(file);
+        if (extension == null) {
+            throw new IOException("Format d'image non supporté");
+        }
+
+        Path staging = tempDir.resolve(key + "-" + UUID.randomUUID());
+        Files.createDirectories(staging);
+        try {
+            Path original = staging.resolve(ORIGINAL + "." + extension);
+            Files.move(file, original, StandardCopyOption.REPLACE_EXISTING);
+            generateVariants(original, staging);
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Même image stockée en parallèle par un autre upload
+                deleteRecursively(staging);
+            }
+            return key;
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(staging);
+            throw e;
+        }
+    }
+
+    /**
+     * Fichier à servir pour une image et une taille : la variante demandée, sinon la plus proche
+     * au-dessus, sinon l'original. Null si l'image n'existe pas.
+     */
+    public Path resolve(String key, ImageVariant variant) {
+        if (!isContentKey(key)) {
+            return null;
+        }
+        Path directory = directoryOf(key);
+        ImageVariant[] variants = ImageVariant.values();
+        for (int i = variant.ordinal(); i < variants.length; i++) {
+            Path candidate = directory.resolve(variants[i].getFileName());
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return findOriginal(directory);
+    }
+
+    /**
+     * Dossier des fichiers temporaires, sur le même volume que le store (déplacement atomique possible)
+     */
+    public Path getTempDirectory() {
+        return tempDir;
+    }
+
+    /**
+     * Extension d'après les premiers octets du fichier (signature), null si ce n'est pas une image acceptée
+     */
+    public static String sniffExtension(byte[] head, int length) {
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "png";
+        }
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "gif";
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    // ========================================
+    // MÉTHODES PRIVÉES
+    // ========================================
+
+    private Path directoryOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private Path findOriginal(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, ORIGINAL + ".*")) {
+            Iterator<Path> iterator = files.iterator();
+            return iterator.hasNext() ? iterator.next() : null;
+        } catch (IOException e) {
+            logger.warn("Lecture impossible du dossier image {}", directory, e);
+            return null;
+        }
+    }
+
+    private String detectExtension(Path file) throws IOException {
+        byte[] head = new byte[12];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = in.readNBytes(head, 0, head.length);
+        }
+        return sniffExtension(head, length);
+    }
+
+    /**
+     * Génère les variantes JPEG plus petites que l'original, de la plus grande à la plus petite
+     * (chacune réduite depuis la précédente). Les formats que ImageIO ne sait pas décoder (WebP)
+     * n'ont pas de variantes : l'original est servi.
+     */
+    private void generateVariants(Path original, Path directory) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new IOException("Image trop grande (" + width + "x" + height + ")");
+                }
+
+                // Très grandes photos : lecture sous-échantillonnée, largeur finale au moins 2x la plus grande variante
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / (ImageVariant.HERO.getMaxWidth() * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                ImageVariant[] variants = ImageVariant.values();
+                for (int i = variants.length - 1; i >= 0; i--) {
+                    ImageVariant variant = variants[i];
+                    if (width <= variant.getMaxWidth()) {
+                        continue;
+                    }
+                    source = scaleToWidth(source, variant.getMaxWidth());
+                    writeJpeg(source, directory.resolve(variant.getFileName()));
+                }
+            } catch (IIOException e) {
+                // Variante non décodable par ImageIO (JPEG CMJN…) : l'original reste servi tel quel
+                logger.warn("Variantes non générées pour {} : {}", original.getFileName(), e.getMessage());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Réduction par moitiés successives puis au pas final (bilinéaire), sur fond blanc (JPEG sans transparence)
+     */
+    private BufferedImage scaleToWidth(BufferedImage image, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round((float) image.getHeight() * targetWidth / image.getWidth()));
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width > targetWidth);
+
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Suppression impossible de {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Nettoyage impossible de {}", directory, e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.reservation_event.images;
+
+import com.vaadin.flow.component.upload.Receiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Receiver d'Upload qui écrit l'image directement dans un fichier temporaire du store,
+ * au lieu de la garder en mémoire (MemoryBuffer) : le tas ne dépend pas de la taille des uploads.
+ *
+ * Pendant le transfert, l'empreinte SHA-256 est calculée, la taille est plafonnée et la signature
+ * du fichier est vérifiée dès les premiers octets (un fichier qui n'est pas une image est refusé
+ * sans être lu jusqu'au bout). Le fichier reste en attente jusqu'à importToStore(), qui le déplace
+ * dans le store, ou discard(). Un nouvel upload remplace le fichier en attente.
+ *
+ * Une instance par formulaire (non partagée entre sessions).
+ */
+public class ImageUploadReceiver implements Receiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadReceiver.class);
+
+    // Octets nécessaires à ImageStore.sniffExtension
+    private static final int HEAD_LENGTH = 12;
+
+    private final ImageStore imageStore;
+    private final long maxBytes;
+
+    // Upload terminé, en attente d'enregistrement
+    private Path pendingFile;
+    private String pendingSha256;
+    private String pendingFileName;
+    private String pendingMimeType;
+
+    public ImageUploadReceiver(ImageStore imageStore, long maxBytes) {
+        this.imageStore = imageStore;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public OutputStream receiveUpload(String fileName, String mimeType) {
+        if (mimeType != null && !mimeType.startsWith("image/")) {
+            throw new UncheckedIOException(new IOException("Type de fichier non supporté: " + mimeType));
+        }
+        try {
+            Path file = Files.createTempFile(imageStore.getTempDirectory(), "upload-", ".bin");
+            return new SniffingOutputStream(file, fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vrai si une image reçue attend d'être enregistrée
+     */
+    public synchronized boolean hasPendingFile() {
+        return pendingFile != null;
+    }
+
+    public synchronized String getFileName() {
+        return pendingFileName;
+    }
+
+    /**
+     * Type MIME déduit du contenu (et non celui annoncé par le navigateur)
+     */
+    public synchronized String getMimeType() {
+        return pendingMimeType;
+    }
+
+    /**
+     * Flux du fichier en attente, pour l'aperçu
+     */
+    public synchronized InputStream openPending() throws IOException {
+        if (pendingFile == null) {
+            throw new IOException("Aucune image en attente");
+        }
+        return Files.newInputStream(pendingFile);
+    }
+
+    /**
+     * Déplace l'image en attente dans le store (même volume, sans recopie) et retourne sa clé
+     */
+    public synchronized String importToStore() throws IOException {
+        if (pendingFile == null) {
+            return null;
+        }
+        Path file = pendingFile;
+        String sha256 = pendingSha256;
+        clearPending();
+        try {
+            return imageStore.importFile(file, sha256);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Supprime l'image en attente (image retirée, upload échoué, vue fermée)
+     */
+    public synchronized void discard() {
+        if (pendingFile != null) {
+            delete(pendingFile);
+        }
+        clearPending();
+    }
+
+    private synchronized void complete(Path file, String sha256, String fileName, String mimeType) {
+        if (pendingFile != null) {
+            delete(pendingFile);
+        }
+        pendingFile = file;
+        pendingSha256 = sha256;
+        pendingFileName = fileName;
+        pendingMimeType = mimeType;
+    }
+
+    private void clearPending() {
+        pendingFile = null;
+        pendingSha256 = null;
+        pendingFileName = null;
+        pendingMimeType = null;
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Suppression impossible du fichier d'upload {}", file, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Écrit dans le fichier temporaire en calculant l'empreinte, contrôle la taille et la signature.
+     * En cas d'erreur, le fichier est supprimé et l'upload échoue (FailedEvent).
+     */
+    private class SniffingOutputStream extends FilterOutputStream {
+
+        private final Path file;
+        private final String fileName;
+        private final MessageDigest digest;
+        private final byte[] head = new byte[HEAD_LENGTH];
+        private long size;
+        private String extension;
+        private boolean failed;
+        private boolean closed;
+
+        SniffingOutputStream(Path file, String fileName) throws IOException {
+            this(file, fileName, sha256());
+        }
+
+        private SniffingOutputStream(Path file, String fileName, MessageDigest digest) throws IOException {
+            super(new DigestOutputStream(Files.newOutputStream(file), digest));
+            this.file = file;
+            this.fileName = fileName;
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (size + len > maxBytes) {
+                fail("Image trop volumineuse (max " + maxBytes / (1024 * 1024) + " Mo)");
+            }
+            if (size < HEAD_LENGTH) {
+                int copied = (int) Math.min(len, HEAD_LENGTH - size);
+                System.arraycopy(b, off, head, (int) size, copied);
+                if (size + copied == HEAD_LENGTH) {
+                    checkSignature(HEAD_LENGTH);
+                }
+            }
+            out.write(b, off, len);
+            size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } catch (IOException e) {
+                failed = true;
+                delete(file);
+                throw e;
+            }
+            if (failed) {
+                delete(file);
+                return;
+            }
+            if (extension == null) {
+                // Fichier plus court que la signature complète
+                try {
+                    checkSignature((int) size);
+                } catch (IOException e) {
+                    delete(file);
+                    throw e;
+                }
+            }
+            complete(file, HexFormat.of().formatHex(digest.digest()), fileName, "image/" + mimeSubtype(extension));
+        }
+
+        private void checkSignature(int length) throws IOException {
+            extension = ImageStore.sniffExtension(head, length);
+            if (extension == null) {
+                fail("Le fichier n'est pas une image JPG, PNG, GIF ou WebP");
+            }
+        }
+
+        private void fail(String message) throws IOException {
+            failed = true;
+            throw new IOException(message);
+        }
+
+        private String mimeSubtype(String extension) {
+            return "jpg".equals(extension) ? "jpeg" : extension;
+        }
+    }
+}
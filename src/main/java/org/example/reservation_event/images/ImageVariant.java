@@ -0,0 +1,45 @@
+package org.example.reservation_event.images;
+
+/**
+ * Tailles pré-générées à l'upload pour chaque image d'événement (largeur maximale en pixels).
+ * Une variante n'est créée que si l'original est plus large ; sinon la variante supérieure
+ * (ou l'original) est servie à la place.
+ */
+public enum ImageVariant {
+    CARD(480),    // cartes des listes d'événements
+    DETAIL(960),  // fiches et formulaires
+    HERO(1600);   // bannière des pages de détail
+
+    private final int maxWidth;
+
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String getFileName() {
+        return getPathSegment() + ".jpg";
+    }
+
+    /**
+     * Nom de la taille dans l'URL de l'image (card, detail, hero)
+     */
+    public String getPathSegment() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Taille correspondant à un segment d'URL, null si inconnu
+     */
+    public static ImageVariant fromPathSegment(String segment) {
+        for (ImageVariant variant : values()) {
+            if (variant.getPathSegment().equals(segment)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
@@ -2,8 +2,8 @@ package org.example.reservation_event.mappers;
 
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.dtos.EventDTO;
+import org.example.reservation_event.dtos.EventStatsDTO;
 import org.example.reservation_event.Enums.EventStatut;
-import org.example.reservation_event.Enums.ReservationStatut;
 import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 
@@ -11,26 +11,25 @@ import java.time.LocalDateTime;
 public class EventMapper {
 
     public EventDTO toDTO(Event event) {
+        return toDTO(event, null);
+    }
+
+    /**
+     * Convertit un événement en DTO à partir des agrégats calculés en SQL.
+     * Sans agrégats, les places viennent du compteur de l'événement et le revenu n'est pas renseigné (null).
+     */
+    public EventDTO toDTO(Event event, EventStatsDTO stats) {
         if (event == null) return null;
 
-        // Calculer les places réservées
-        int placesReservees = event.getReservations() != null ?
-                event.getReservations().stream()
-                        .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE ||
-                                r.getStatut() == ReservationStatut.EN_ATTENTE)
-                        .mapToInt(r -> r.getNombrePlaces())
-                        .sum() : 0;
+        int placesReservees = stats != null && stats.getPlacesReservees() != null ?
+                stats.getPlacesReservees().intValue() : event.getPlacesReservees();
 
         int placesDisponibles = event.getCapaciteMax() - placesReservees;
         double tauxRemplissage = event.getCapaciteMax() > 0 ?
                 (double) placesReservees / event.getCapaciteMax() * 100 : 0;
 
-        // Calculer le revenu total
-        double revenuTotal = event.getReservations() != null ?
-                event.getReservations().stream()
-                        .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                        .mapToDouble(r -> r.getMontantTotal())
-                        .sum() : 0;
+        Double revenuTotal = stats != null ?
+                (stats.getRevenuTotal() != null ? stats.getRevenuTotal() : 0.0) : null;
 
         EventDTO dto = EventDTO.builder()
                 .id(event.getId())
@@ -86,9 +85,13 @@ public class EventMapper {
     }
 
     public EventDTO toReservationFormDTO(Event event, Integer placesDisponibles) {
+        return toReservationFormDTO(event, null, placesDisponibles);
+    }
+
+    public EventDTO toReservationFormDTO(Event event, EventStatsDTO stats, Integer placesDisponibles) {
         if (event == null) return null;
 
-        EventDTO dto = toDTO(event);
+        EventDTO dto = toDTO(event, stats);
         if (placesDisponibles != null) {
             dto.setPlacesDisponibles(placesDisponibles);
             dto.setIsReservable(isReservable(event, placesDisponibles));
@@ -0,0 +1,26 @@
+package org.example.reservation_event.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mesure la durée d'exécution JDBC de chaque statement. Instancié par Hibernate pour chaque session
+ * (hibernate.session.events.auto), d'où le passage par le ThreadLocal de RequestQueryStats.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.onExecuteStart();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.onExecuteEnd();
+        }
+    }
+}
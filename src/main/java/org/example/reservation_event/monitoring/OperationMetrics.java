@@ -0,0 +1,53 @@
+package org.example.reservation_event.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers Micrometer des opérations métier (réservation, emails, PDF, schedulers).
+ * Chaque timer est tagué outcome=success|failure et exception, et publie p50/p99
+ * ainsi qu'un histogramme pour Prometheus ; le débit est le compteur du timer.
+ */
+@Component
+public class OperationMetrics {
+
+    private final MeterRegistry registry;
+
+    public OperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String name, boolean success, String... tags) {
+        sample.stop(timer(name, success ? "success" : "failure", "none", tags));
+    }
+
+    /**
+     * @param error exception levée par l'opération, ou null si elle a réussi
+     */
+    public void stop(Timer.Sample sample, String name, Throwable error, String... tags) {
+        if (error == null) {
+            stop(sample, name, true, tags);
+        } else {
+            sample.stop(timer(name, "failure", error.getClass().getSimpleName(), tags));
+        }
+    }
+
+    public void increment(String name, double amount, String... tags) {
+        registry.counter(name, tags).increment(amount);
+    }
+
+    private Timer timer(String name, String outcome, String exception, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
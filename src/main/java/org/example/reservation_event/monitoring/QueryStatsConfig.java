@@ -0,0 +1,31 @@
+package org.example.reservation_event.monitoring;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Branche l'instrumentation SQL : hooks Hibernate et étiquetage des requêtes par vue Vaadin.
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingSessionListener.class.getName());
+        };
+    }
+
+    // La vue cible est connue avant son instanciation : le SQL de son constructeur lui est attribué
+    @Bean
+    public VaadinServiceInitListener queryStatsRouteTagger() {
+        return (ServiceInitEvent event) -> event.getSource().addUIInitListener(uiEvent ->
+                uiEvent.getUI().addBeforeEnterListener(beforeEnter ->
+                        RequestQueryStats.tagRoute(beforeEnter.getNavigationTarget().getSimpleName())));
+    }
+}
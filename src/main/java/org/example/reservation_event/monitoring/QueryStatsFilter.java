@@ -0,0 +1,58 @@
+package org.example.reservation_event.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Ouvre un RequestQueryStats pour chaque requête HTTP et l'enregistre à la fin si du SQL a été exécuté.
+ */
+@Component
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    // Au-delà, la requête est signalée dans les logs (suspicion de N+1)
+    private static final int STATEMENT_WARN_THRESHOLD = 50;
+
+    // Requête ni Vaadin ni Spring MVC (aucun motif de route connu)
+    static final String UNMATCHED_ROUTE = "(autre)";
+
+    private final QueryStatsRegistry registry;
+
+    public QueryStatsFilter(QueryStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin(UNMATCHED_ROUTE);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            if (stats.getStatementCount() > 0) {
+                // Motif de la route (/images/events/{key}/{variant}) et non l'URI : une entrée par route, pas par id
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    stats.resolveRoute(request.getMethod() + " " + pattern);
+                }
+                registry.record(stats);
+                if (stats.getStatementCount() > STATEMENT_WARN_THRESHOLD) {
+                    logger.warn("{} statements SQL ({} ms) pour une requête sur {} ({})",
+                            stats.getStatementCount(), stats.getTotalNanos() / 1_000_000, stats.getRoute(),
+                            request.getRequestURI());
+                }
+            }
+        }
+    }
+}
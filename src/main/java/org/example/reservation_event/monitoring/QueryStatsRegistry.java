@@ -0,0 +1,99 @@
+package org.example.reservation_event.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrégats SQL par vue Vaadin (ou par motif de route Spring MVC hors Vaadin) depuis le démarrage
+ * ou la dernière remise à zéro.
+ */
+@Component
+public class QueryStatsRegistry {
+
+    // Garde-fou : au-delà, les nouvelles routes sont regroupées sous OVERFLOW_ROUTE
+    static final int MAX_ROUTES = 500;
+    static final String OVERFLOW_ROUTE = "(autres routes)";
+
+    private final Map<String, RouteQueryStats> byRoute = new ConcurrentHashMap<>();
+
+    public void record(RequestQueryStats request) {
+        String route = request.getRoute();
+        if (!byRoute.containsKey(route) && byRoute.size() >= MAX_ROUTES) {
+            route = OVERFLOW_ROUTE;
+        }
+        byRoute.computeIfAbsent(route, RouteQueryStats::new).add(request);
+    }
+
+    /**
+     * Vues triées par nombre moyen de statements par requête (les N+1 en premier)
+     */
+    public List<RouteQueryStats> snapshot() {
+        List<RouteQueryStats> routes = new ArrayList<>(byRoute.values());
+        routes.sort(Comparator.comparingDouble(RouteQueryStats::getAverageStatements).reversed());
+        return routes;
+    }
+
+    public void reset() {
+        byRoute.clear();
+    }
+
+    public static class RouteQueryStats {
+
+        private final String route;
+        private long requests;
+        private long statements;
+        private long totalNanos;
+        private int maxStatementsPerRequest;
+        private final List<RequestQueryStats.SlowStatement> slowest = new ArrayList<>();
+
+        RouteQueryStats(String route) {
+            this.route = route;
+        }
+
+        synchronized void add(RequestQueryStats request) {
+            requests++;
+            statements += request.getStatementCount();
+            totalNanos += request.getTotalNanos();
+            maxStatementsPerRequest = Math.max(maxStatementsPerRequest, request.getStatementCount());
+
+            slowest.addAll(request.getSlowest());
+            slowest.sort(Comparator.comparingLong(RequestQueryStats.SlowStatement::nanos).reversed());
+            if (slowest.size() > RequestQueryStats.SLOWEST_KEPT) {
+                slowest.subList(RequestQueryStats.SLOWEST_KEPT, slowest.size()).clear();
+            }
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public synchronized long getRequests() {
+            return requests;
+        }
+
+        public synchronized long getStatements() {
+            return statements;
+        }
+
+        public synchronized double getAverageStatements() {
+            return requests == 0 ? 0.0 : (double) statements / requests;
+        }
+
+        public synchronized int getMaxStatementsPerRequest() {
+            return maxStatementsPerRequest;
+        }
+
+        public synchronized double getTotalMillis() {
+            return totalNanos / 1_000_000.0;
+        }
+
+        public synchronized List<RequestQueryStats.SlowStatement> getSlowest() {
+            return new ArrayList<>(slowest);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.reservation_event.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compteurs SQL d'une requête HTTP (ou d'une requête Vaadin) en cours, attachés au thread courant.
+ * Alimentés par SqlStatementInspector (texte SQL) et JdbcTimingSessionListener (durée d'exécution).
+ */
+public class RequestQueryStats {
+
+    static final int SLOWEST_KEPT = 5;
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private String route;
+    private boolean routeTagged;
+    private int statementCount;
+    private long totalNanos;
+    private final List<SlowStatement> slowest = new ArrayList<>();
+
+    private String pendingSql;
+    private long executeStartNanos;
+
+    public record SlowStatement(String sql, long nanos) {
+    }
+
+    public static RequestQueryStats begin(String fallbackRoute) {
+        RequestQueryStats stats = new RequestQueryStats();
+        stats.route = fallbackRoute;
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Associe la requête courante à une vue Vaadin (appelé avant l'instanciation de la vue)
+     */
+    public static void tagRoute(String route) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.route = route;
+            stats.routeTagged = true;
+        }
+    }
+
+    boolean isRouteTagged() {
+        return routeTagged;
+    }
+
+    /**
+     * Route déterminée après coup (motif Spring MVC), sans écraser une vue Vaadin déjà étiquetée
+     */
+    void resolveRoute(String route) {
+        if (!routeTagged) {
+            this.route = route;
+        }
+    }
+
+    void onPrepare(String sql) {
+        pendingSql = sql;
+    }
+
+    void onExecuteStart() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    void onExecuteEnd() {
+        long nanos = System.nanoTime() - executeStartNanos;
+        statementCount++;
+        totalNanos += nanos;
+
+        if (slowest.size() < SLOWEST_KEPT || nanos > slowest.get(slowest.size() - 1).nanos()) {
+            slowest.add(new SlowStatement(pendingSql, nanos));
+            slowest.sort(Comparator.comparingLong(SlowStatement::nanos).reversed());
+            if (slowest.size() > SLOWEST_KEPT) {
+                slowest.remove(slowest.size() - 1);
+            }
+        }
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public List<SlowStatement> getSlowest() {
+        return slowest;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.reservation_event.monitoring;
+
+import com.vaadin.flow.component.HasElement;
+import com.vaadin.flow.component.UI;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+
+/**
+ * Mémorise le SQL de chaque statement préparé par Hibernate pour la requête en cours (sans le modifier).
+ * Pour les requêtes UIDL (grilles lazy, clics), la vue est déduite de l'UI Vaadin courante.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            if (!stats.isRouteTagged()) {
+                tagFromCurrentUi();
+            }
+            stats.onPrepare(sql);
+        }
+        return sql;
+    }
+
+    private void tagFromCurrentUi() {
+        UI ui = UI.getCurrent();
+        if (ui == null) {
+            return;
+        }
+        List<HasElement> chain = ui.getInternals().getActiveRouterTargetsChain();
+        if (!chain.isEmpty()) {
+            RequestQueryStats.tagRoute(chain.get(0).getClass().getSimpleName());
+        }
+    }
+}
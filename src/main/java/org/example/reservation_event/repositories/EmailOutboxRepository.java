@@ -0,0 +1,39 @@
+package org.example.reservation_event.repositories;
+
+import org.example.reservation_event.Enums.EmailOutboxStatut;
+import org.example.reservation_event.classes.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Emails à envoyer (en attente, ou en cours dont le bail a expiré après un crash), les plus anciens d'abord
+    @Query("SELECT o.id FROM EmailOutbox o " +
+            "WHERE o.statut IN :statuts AND o.prochaineTentative <= :now " +
+            "ORDER BY o.prochaineTentative")
+    List<Long> findDueIds(@Param("statuts") Collection<EmailOutboxStatut> statuts,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    // Prise atomique d'un email : 0 si un autre worker l'a déjà pris
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.statut = :enCours, o.tentatives = o.tentatives + 1, " +
+            "o.prochaineTentative = :bail " +
+            "WHERE o.id = :id AND o.statut IN :statuts AND o.prochaineTentative <= :now")
+    int claim(@Param("id") Long id,
+              @Param("enCours") EmailOutboxStatut enCours,
+              @Param("statuts") Collection<EmailOutboxStatut> statuts,
+              @Param("now") LocalDateTime now,
+              @Param("bail") LocalDateTime bail);
+
+    long countByStatut(EmailOutboxStatut statut);
+}
@@ -3,15 +3,19 @@ import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.OrganizerStatsDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
     // Trouver les événements par catégorie
     List<Event> findByCategorie(EventCategorie categorie);
     List<Event> findByOrganisateur(User organisateur);
@@ -112,4 +116,77 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("UPDATE Event e SET e.statut = 'TERMINE' " +
             "WHERE e.statut = 'PUBLIE' AND e.dateFin < :cutoffTime")
     int bulkUpdatePastEvents(@Param("cutoffTime") LocalDateTime cutoffTime);
+
+    /**
+     * Réserve des places de façon atomique : la mise à jour n'a lieu que si l'événement est toujours
+     * publié et que la capacité le permet. Retourne 1 si les places ont été prises, 0 si l'événement
+     * est complet ou a été annulé entre la lecture et la réservation.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.seatsReserved = e.seatsReserved + :places " +
+            "WHERE e.id = :eventId AND e.statut = 'PUBLIE' AND e.seatsReserved + :places <= e.capaciteMax")
+    int reserveSeats(@Param("eventId") Long eventId, @Param("places") int places);
+
+    /**
+     * Libère des places précédemment réservées (annulation)
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.seatsReserved = e.seatsReserved - :places " +
+            "WHERE e.id = :eventId AND e.seatsReserved >= :places")
+    int releaseSeats(@Param("eventId") Long eventId, @Param("places") int places);
+
+    /**
+     * Change la capacité seulement si elle reste supérieure ou égale aux places déjà réservées.
+     * Même ligne que reserveSeats : une réservation concurrente ne peut pas passer entre le contrôle et la mise à jour.
+     * Retourne 0 si la nouvelle capacité est trop petite.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.capaciteMax = :capacite " +
+            "WHERE e.id = :eventId AND e.seatsReserved <= :capacite")
+    int updateCapacity(@Param("eventId") Long eventId, @Param("capacite") int capacite);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.seatsReserved = 0 WHERE e.id = :eventId")
+    int resetSeats(@Param("eventId") Long eventId);
+
+    /**
+     * Recalcule le compteur de tous les événements à partir des réservations actives
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.seatsReserved = " +
+            "(SELECT COALESCE(SUM(r.nombrePlaces), 0) FROM Reservation r " +
+            " WHERE r.evenement.id = e.id AND r.statut IN ('CONFIRMEE', 'EN_ATTENTE'))")
+    int resyncSeatsReserved();
+
+    /**
+     * Classement des événements à venir publiés et non complets par places confirmées
+     * (un seul GROUP BY ; la taille du classement est donnée par le Pageable)
+     */
+    @Query("SELECT e.id FROM Event e " +
+            "LEFT JOIN Reservation r ON r.evenement.id = e.id AND r.statut = 'CONFIRMEE' " +
+            "WHERE e.statut = 'PUBLIE' " +
+            "AND e.dateDebut > :now " +
+            "AND e.seatsReserved < e.capaciteMax " +
+            "GROUP BY e.id, e.dateDebut " +
+            "ORDER BY COALESCE(SUM(r.nombrePlaces), 0) DESC, e.dateDebut ASC")
+    List<Long> findPopularEventIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT e FROM Event e LEFT JOIN FETCH e.organisateur WHERE e.id IN :ids")
+    List<Event> findAllWithOrganisateurByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Nombre d'événements par statut (dashboard admin)
+    @Query("SELECT e.statut, COUNT(e) FROM Event e GROUP BY e.statut")
+    List<Object[]> countGroupByStatut();
+
+    // Statistiques d'un organisateur : événements par statut et réservations confirmées, en une requête
+    @Query("SELECT new org.example.reservation_event.dtos.OrganizerStatsDTO(" +
+            "COUNT(DISTINCT e.id), " +
+            "COUNT(DISTINCT CASE WHEN e.statut = 'PUBLIE' THEN e.id END), " +
+            "COUNT(DISTINCT CASE WHEN e.statut = 'BROUILLON' THEN e.id END), " +
+            "COUNT(r.id), " +
+            "COALESCE(SUM(r.montantTotal), 0.0)) " +
+            "FROM Event e " +
+            "LEFT JOIN e.reservations r ON r.statut = 'CONFIRMEE' " +
+            "WHERE e.organisateur.id = :organizerId")
+    OrganizerStatsDTO findOrganizerStats(@Param("organizerId") Long organizerId);
 }
@@ -0,0 +1,88 @@
+package org.example.reservation_event.repositories;
+
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.Enums.EventStatut;
+import org.example.reservation_event.classes.Event;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Critères de recherche d'événements exécutés par la base (JPA Criteria).
+ * Chaque critère renvoie null lorsque le filtre est vide, ce que Specification ignore.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> hasStatut(EventStatut statut) {
+        return (root, query, cb) -> statut == null ? null : cb.equal(root.get("statut"), statut);
+    }
+
+    public static Specification<Event> hasCategorie(EventCategorie categorie) {
+        return (root, query, cb) -> categorie == null ? null : cb.equal(root.get("categorie"), categorie);
+    }
+
+    public static Specification<Event> titreContains(String keyword) {
+        return (root, query, cb) -> isBlank(keyword) ? null :
+                cb.like(cb.lower(root.get("titre")), likePattern(keyword));
+    }
+
+    // Lieu ou ville
+    public static Specification<Event> locationContains(String location) {
+        return (root, query, cb) -> {
+            if (isBlank(location)) return null;
+            String pattern = likePattern(location);
+            return cb.or(
+                    cb.like(cb.lower(root.get("lieu")), pattern),
+                    cb.like(cb.lower(root.get("ville")), pattern)
+            );
+        };
+    }
+
+    public static Specification<Event> startsOnOrAfter(LocalDateTime start) {
+        return (root, query, cb) -> start == null ? null :
+                cb.greaterThanOrEqualTo(root.get("dateDebut"), start);
+    }
+
+    public static Specification<Event> endsOnOrBefore(LocalDateTime end) {
+        return (root, query, cb) -> end == null ? null :
+                cb.lessThanOrEqualTo(root.get("dateFin"), end);
+    }
+
+    public static Specification<Event> prixMin(Double minPrice) {
+        return (root, query, cb) -> minPrice == null ? null :
+                cb.greaterThanOrEqualTo(root.get("prixUnitaire"), minPrice);
+    }
+
+    public static Specification<Event> prixMax(Double maxPrice) {
+        return (root, query, cb) -> maxPrice == null ? null :
+                cb.lessThanOrEqualTo(root.get("prixUnitaire"), maxPrice);
+    }
+
+    /**
+     * Combine tous les filtres de recherche (les filtres nuls ou vides sont ignorés)
+     */
+    public static Specification<Event> search(String keyword, String location,
+                                              LocalDateTime start, LocalDateTime end,
+                                              Double minPrice, Double maxPrice,
+                                              EventStatut statut, EventCategorie categorie) {
+        return Specification.where(hasStatut(statut))
+                .and(hasCategorie(categorie))
+                .and(titreContains(keyword))
+                .and(locationContains(location))
+                .and(startsOnOrAfter(start))
+                .and(endsOnOrBefore(end))
+                .and(prixMin(minPrice))
+                .and(prixMax(maxPrice));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static String likePattern(String value) {
+        return "%" + value.trim().toLowerCase() + "%";
+    }
+}
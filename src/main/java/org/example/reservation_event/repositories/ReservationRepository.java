@@ -4,17 +4,47 @@ import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.User;
 import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.dtos.EventStatsDTO;
+import org.example.reservation_event.dtos.ReservationTotalsDTO;
 import org.example.reservation_event.dtos.ReservationSummaryDTO; // CORRECTION: "dtos" au lieu de "dto"
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    // Filtres de la vue admin des réservations ; un paramètre null désactive le filtre,
+    // :search est déjà en minuscules et entouré de '%'
+    String ADMIN_FILTER = "WHERE (:statut IS NULL OR r.statut = :statut) " +
+            "AND (:debut IS NULL OR r.dateReservation >= :debut) " +
+            "AND (:fin IS NULL OR r.dateReservation <= :fin) " +
+            "AND (:search IS NULL " +
+            "OR LOWER(r.codeReservation) LIKE :search " +
+            "OR LOWER(CONCAT(u.prenom, ' ', u.nom)) LIKE :search " +
+            "OR LOWER(u.email) LIKE :search " +
+            "OR LOWER(e.titre) LIKE :search) ";
+
+    // Filtres de la vue organisateur (réservations d'un seul événement), mêmes conventions que ADMIN_FILTER
+    String EVENT_FILTER = "WHERE e.id = :eventId " +
+            "AND (:statut IS NULL OR r.statut = :statut) " +
+            "AND (:search IS NULL " +
+            "OR LOWER(r.codeReservation) LIKE :search " +
+            "OR LOWER(u.nom) LIKE :search " +
+            "OR LOWER(u.prenom) LIKE :search " +
+            "OR LOWER(u.email) LIKE :search) ";
+
     // Trouver les réservations d'un utilisateur
     List<Reservation> findByUtilisateur(User utilisateur);
 
@@ -97,6 +127,215 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             "JOIN FETCH r.evenement.organisateur " +
             "WHERE r.id = :id")
     Optional<Reservation> findByIdWithAllRelations(@Param("id") Long id);
-    // AJOUTE CETTE MÉTHODE :
-    List<Reservation> findByEvenement_DateDebutBetween(LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+    /**
+     * Réservations actives sans rappel pour les événements qui commencent dans la fenêtre,
+     * par pages de taille fixe en reprenant après le dernier id traité (pagination par clé)
+     */
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur " +
+            "JOIN FETCH r.evenement e " +
+            "JOIN FETCH e.organisateur " +
+            "WHERE e.dateDebut BETWEEN :start AND :end " +
+            "AND r.statut IN :statuts " +
+            "AND r.reminderSentAt IS NULL " +
+            "AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<Reservation> findReminderCandidates(@Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end,
+                                             @Param("statuts") Collection<ReservationStatut> statuts,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    /**
+     * Réservations d'un événement par tranches (utilisateur, événement et organisateur chargés),
+     * en reprenant après le dernier id traité : génération groupée des billets sans tout charger
+     */
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur " +
+            "JOIN FETCH r.evenement e " +
+            "LEFT JOIN FETCH e.organisateur " +
+            "WHERE e.id = :eventId " +
+            "AND r.statut IN :statuts " +
+            "AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<Reservation> findEventChunk(@Param("eventId") Long eventId,
+                                     @Param("statuts") Collection<ReservationStatut> statuts,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    /**
+     * Marque le rappel comme envoyé ; 0 si un autre envoi l'a déjà pris
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reservation r SET r.reminderSentAt = :sentAt WHERE r.id = :id AND r.reminderSentAt IS NULL")
+    int claimReminder(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Rend le rappel à nouveau éligible après un échec d'envoi
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reservation r SET r.reminderSentAt = NULL WHERE r.id = :id")
+    int releaseReminder(@Param("id") Long id);
+
+    // Agrégats par événement (places actives, revenu confirmé) calculés par la base
+    @Query("SELECT new org.example.reservation_event.dtos.EventStatsDTO(" +
+            "r.evenement.id, " +
+            "SUM(CASE WHEN r.statut IN ('CONFIRMEE', 'EN_ATTENTE') THEN r.nombrePlaces ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN r.montantTotal ELSE 0.0 END)) " +
+            "FROM Reservation r " +
+            "WHERE r.evenement.id IN :eventIds " +
+            "GROUP BY r.evenement.id")
+    List<EventStatsDTO> findStatsByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Query("SELECT COALESCE(SUM(r.montantTotal), 0) FROM Reservation r " +
+            "WHERE r.evenement.id = :eventId AND r.statut = 'CONFIRMEE'")
+    Double sumConfirmedRevenueByEvent(@Param("eventId") Long eventId);
+
+    boolean existsByEvenementId(Long eventId);
+
+    // Nombre de réservations non annulées par catégorie d'événement
+    @Query("SELECT r.evenement.categorie, COUNT(r) FROM Reservation r " +
+            "WHERE r.statut <> 'ANNULEE' " +
+            "GROUP BY r.evenement.categorie")
+    List<Object[]> countActiveReservationsByCategory();
+
+    /**
+     * Annule une réservation active si son statut est toujours celui lu par l'appelant.
+     * Retourne 0 si elle a été annulée (ou modifiée) entre-temps : une seule annulation libère les places.
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.statut = 'ANNULEE' " +
+            "WHERE r.id = :id AND r.statut = :statut AND r.statut IN ('EN_ATTENTE', 'CONFIRMEE')")
+    int cancelIfStatut(@Param("id") Long id, @Param("statut") ReservationStatut statut);
+
+    /**
+     * Confirme une réservation seulement si elle est encore en attente.
+     * Retourne 0 si elle a été annulée (ou confirmée) entre-temps : ses places ont peut-être déjà été libérées.
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.statut = 'CONFIRMEE' " +
+            "WHERE r.id = :id AND r.statut = 'EN_ATTENTE'")
+    int confirmIfEnAttente(@Param("id") Long id);
+
+    // Annulation groupée des réservations d'un événement annulé
+    @Modifying
+    @Query("UPDATE Reservation r SET r.statut = 'ANNULEE' " +
+            "WHERE r.evenement.id = :eventId AND r.statut <> 'ANNULEE'")
+    int cancelAllByEvent(@Param("eventId") Long eventId);
+
+    // Nombre de réservations par statut (dashboard admin)
+    @Query("SELECT r.statut, COUNT(r) FROM Reservation r GROUP BY r.statut")
+    List<Object[]> countGroupByStatut();
+
+    // Revenus et places confirmés par mois de réservation et catégorie (reconstruction de revenue_monthly)
+    @Query("SELECT YEAR(r.dateReservation), MONTH(r.dateReservation), r.evenement.categorie, " +
+            "SUM(r.montantTotal), SUM(r.nombrePlaces) " +
+            "FROM Reservation r " +
+            "WHERE r.statut = 'CONFIRMEE' " +
+            "GROUP BY YEAR(r.dateReservation), MONTH(r.dateReservation), r.evenement.categorie")
+    List<Object[]> sumConfirmedByMonthAndCategory();
+
+    // Même agrégat limité à un événement (annulation groupée)
+    @Query("SELECT YEAR(r.dateReservation), MONTH(r.dateReservation), " +
+            "SUM(r.montantTotal), SUM(r.nombrePlaces) " +
+            "FROM Reservation r " +
+            "WHERE r.evenement.id = :eventId AND r.statut = 'CONFIRMEE' " +
+            "GROUP BY YEAR(r.dateReservation), MONTH(r.dateReservation)")
+    List<Object[]> sumConfirmedByMonthForEvent(@Param("eventId") Long eventId);
+
+    // Une page de réservations filtrée et triée (utilisateur et événement chargés) ;
+    // le nombre total vient de findAdminTotals, pas de COUNT supplémentaire ici
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur u " +
+            "JOIN FETCH r.evenement e " +
+            ADMIN_FILTER)
+    List<Reservation> findAdminPage(@Param("statut") ReservationStatut statut,
+                                    @Param("debut") LocalDateTime debut,
+                                    @Param("fin") LocalDateTime fin,
+                                    @Param("search") String search,
+                                    Pageable pageable);
+
+    // Totaux des mêmes réservations filtrées (taille de la grille et cartes de statistiques)
+    @Query("SELECT new org.example.reservation_event.dtos.ReservationTotalsDTO(" +
+            "COUNT(r), " +
+            "SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut <> 'ANNULEE' THEN r.nombrePlaces ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN r.montantTotal ELSE 0.0 END)) " +
+            "FROM Reservation r " +
+            "JOIN r.utilisateur u " +
+            "JOIN r.evenement e " +
+            ADMIN_FILTER)
+    ReservationTotalsDTO findAdminTotals(@Param("statut") ReservationStatut statut,
+                                         @Param("debut") LocalDateTime debut,
+                                         @Param("fin") LocalDateTime fin,
+                                         @Param("search") String search);
+
+    // Une page des réservations d'un événement, filtrée et triée (utilisateur chargé)
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur u " +
+            "JOIN FETCH r.evenement e " +
+            EVENT_FILTER)
+    List<Reservation> findEventPage(@Param("eventId") Long eventId,
+                                    @Param("statut") ReservationStatut statut,
+                                    @Param("search") String search,
+                                    Pageable pageable);
+
+    // Mêmes filtres, par tranches dans l'ordre des id en reprenant après :afterId (export en flux)
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur u " +
+            "JOIN FETCH r.evenement e " +
+            EVENT_FILTER +
+            "AND r.id > :afterId " +
+            "ORDER BY r.id")
+    List<Reservation> findEventChunkAfter(@Param("eventId") Long eventId,
+                                          @Param("statut") ReservationStatut statut,
+                                          @Param("search") String search,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    // Parcours en avant seul des réservations filtrées (export CSV/Excel) : à consommer dans une transaction
+    // et à fermer ; lignes lues par paquets de 500, entités en lecture seule (pas d'instantané de dirty checking)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur u " +
+            "JOIN FETCH r.evenement e " +
+            EVENT_FILTER +
+            "ORDER BY r.id")
+    Stream<Reservation> streamEventExport(@Param("eventId") Long eventId,
+                                          @Param("statut") ReservationStatut statut,
+                                          @Param("search") String search);
+
+    // Même parcours pour la vue admin (mêmes filtres que findAdminPage)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r " +
+            "JOIN FETCH r.utilisateur u " +
+            "JOIN FETCH r.evenement e " +
+            ADMIN_FILTER +
+            "ORDER BY r.id")
+    Stream<Reservation> streamAdminExport(@Param("statut") ReservationStatut statut,
+                                          @Param("debut") LocalDateTime debut,
+                                          @Param("fin") LocalDateTime fin,
+                                          @Param("search") String search);
+
+    // Totaux des réservations d'un événement (filtres null = toutes)
+    @Query("SELECT new org.example.reservation_event.dtos.ReservationTotalsDTO(" +
+            "COUNT(r), " +
+            "SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut <> 'ANNULEE' THEN r.nombrePlaces ELSE 0 END), " +
+            "SUM(CASE WHEN r.statut = 'CONFIRMEE' THEN r.montantTotal ELSE 0.0 END)) " +
+            "FROM Reservation r " +
+            "JOIN r.utilisateur u " +
+            "JOIN r.evenement e " +
+            EVENT_FILTER)
+    ReservationTotalsDTO findEventTotals(@Param("eventId") Long eventId,
+                                         @Param("statut") ReservationStatut statut,
+                                         @Param("search") String search);
+}
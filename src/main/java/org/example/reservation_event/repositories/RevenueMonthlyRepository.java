@@ -0,0 +1,40 @@
+package org.example.reservation_event.repositories;
+
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.classes.RevenueMonthly;
+import org.example.reservation_event.dtos.MonthlyRevenueDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RevenueMonthlyRepository extends JpaRepository<RevenueMonthly, Long> {
+
+    // Ajoute (ou retire si négatif) un montant et des places à un mois / catégorie existant
+    @Modifying
+    @Query("UPDATE RevenueMonthly r SET r.revenu = r.revenu + :montant, r.places = r.places + :places " +
+            "WHERE r.annee = :annee AND r.mois = :mois AND r.categorie = :categorie")
+    int addToBucket(@Param("annee") Integer annee,
+                    @Param("mois") Integer mois,
+                    @Param("categorie") EventCategorie categorie,
+                    @Param("montant") Double montant,
+                    @Param("places") Long places);
+
+    // Revenus par mois, toutes catégories confondues, dans l'ordre chronologique
+    @Query("SELECT new org.example.reservation_event.dtos.MonthlyRevenueDTO(r.annee, r.mois, SUM(r.revenu)) " +
+            "FROM RevenueMonthly r " +
+            "GROUP BY r.annee, r.mois " +
+            "ORDER BY r.annee, r.mois")
+    List<MonthlyRevenueDTO> sumRevenueByMonth();
+
+    @Query("SELECT COALESCE(SUM(r.revenu), 0) FROM RevenueMonthly r")
+    Double sumRevenue();
+
+    @Modifying
+    @Query("DELETE FROM RevenueMonthly r")
+    int deleteAllBuckets();
+}
@@ -5,6 +5,8 @@ import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.Review;
 import org.example.reservation_event.classes.User;
 import org.example.reservation_event.dtos.ReviewSummaryDTO;
+import org.example.reservation_event.dtos.TopRatedEventDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -92,4 +94,18 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
             "WHERE e.organisateur.id = :organizerId " +
             "ORDER BY r.createdAt DESC")
     List<Review> findReviewsForOrganizerEvents(@Param("organizerId") Long organizerId);
-}
\ No newline at end of file
+
+    // Histogramme des notes (dashboard admin)
+    @Query("SELECT r.rating, COUNT(r) FROM Review r GROUP BY r.rating")
+    List<Object[]> countGroupByRating();
+
+    // Événements les mieux notés avec un minimum d'avis (taille donnée par le Pageable)
+    @Query("SELECT new org.example.reservation_event.dtos.TopRatedEventDTO(" +
+            "e.id, e.titre, e.categorie, AVG(r.rating), COUNT(r)) " +
+            "FROM Review r " +
+            "JOIN r.event e " +
+            "GROUP BY e.id, e.titre, e.categorie " +
+            "HAVING COUNT(r) >= :minReviews " +
+            "ORDER BY AVG(r.rating) DESC")
+    List<TopRatedEventDTO> findTopRatedEventSummaries(@Param("minReviews") Long minReviews, Pageable pageable);
+}
@@ -23,4 +23,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Exemple avec @Query si besoin
     @Query("select u from User u where lower(u.email) like lower(concat('%', :term, '%'))")
     List<User> searchByEmailLike(String term);
+
+    // Nombre d'utilisateurs par rôle (dashboard admin)
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupByRole();
 }
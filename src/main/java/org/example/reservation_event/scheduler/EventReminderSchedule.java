@@ -1,33 +1,63 @@
 package org.example.reservation_event.scheduler;
 
+import io.micrometer.core.instrument.Timer;
+import org.example.reservation_event.Enums.ReservationStatut;
 import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.config.ReminderConfig;
 import org.example.reservation_event.email.EmailService;
+import org.example.reservation_event.monitoring.OperationMetrics;
 import org.example.reservation_event.repositories.ReservationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+// Le TaskScheduler des reprises n'existe qu'avec @EnableScheduling (SchedulingConfig)
 @Component
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
 public class EventReminderSchedule {
 
     private static final Logger logger = LoggerFactory.getLogger(EventReminderSchedule.class);
 
+    private static final Set<ReservationStatut> STATUTS_RAPPEL =
+            EnumSet.of(ReservationStatut.CONFIRMEE, ReservationStatut.EN_ATTENTE);
+
+    // Reprises de la même fenêtre après des échecs d'envoi : 5 min, 10 min, 20 min
+    private static final int MAX_RETRY_PASSES = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofMinutes(5);
+
     private final ReservationRepository reservationRepository;
     private final EmailService emailService;
-
-    // Add a flag to prevent duplicate sending
-    private boolean alreadySentToday = false;
-    private LocalDateTime lastRunDate = null;
+    private final OperationMetrics operationMetrics;
+    private final ThreadPoolTaskExecutor reminderExecutor;
+    private final TaskScheduler taskScheduler;
 
     public EventReminderSchedule(ReservationRepository reservationRepository,
-                                 EmailService emailService) {
+                                 EmailService emailService,
+                                 OperationMetrics operationMetrics,
+                                 @Qualifier("reminderExecutor") ThreadPoolTaskExecutor reminderExecutor,
+                                 TaskScheduler taskScheduler) {
         this.reservationRepository = reservationRepository;
         this.emailService = emailService;
+        this.operationMetrics = operationMetrics;
+        this.reminderExecutor = reminderExecutor;
+        this.taskScheduler = taskScheduler;
     }
 
     /**
@@ -35,68 +65,115 @@ public class EventReminderSchedule {
      * Exécuté tous les jours à 9h du matin
      */
     @Scheduled(cron = "0 34 14 * * ?") // Tous les jours à 9h (plus standard)
-    @Transactional
     public void send24HourReminders() {
         LocalDateTime now = LocalDateTime.now();
+        LocalDateTime tomorrowStart = now.plusDays(1).withHour(0).withMinute(0).withSecond(0);
+        LocalDateTime tomorrowEnd = now.plusDays(1).withHour(23).withMinute(59).withSecond(59);
+
+        logger.info("🚀 Démarrage de l'envoi des rappels 24h avant événement...");
+        runPass(tomorrowStart, tomorrowEnd, 0);
+    }
 
-        // ✅ PREVENT DUPLICATE RUNS ON THE SAME DAY
-        if (lastRunDate != null && lastRunDate.toLocalDate().equals(now.toLocalDate())) {
-            logger.info("⏭️ Rappels déjà envoyés aujourd'hui, skipping...");
+    /**
+     * Un passage complet sur la fenêtre. En cas d'échecs, un nouveau passage sur la même fenêtre
+     * est planifié (backoff doublé, MAX_RETRY_PASSES au plus) : les réservations libérées
+     * (reminderSentAt remis à null) sont reprises depuis le début, le curseur repartant de 0.
+     * Le thread du scheduler n'attend pas la reprise.
+     */
+    private void runPass(LocalDateTime windowStart, LocalDateTime windowEnd, int retry) {
+        Timer.Sample sample = operationMetrics.start();
+        Throwable error = null;
+        int failures;
+        try {
+            failures = doSend24HourReminders(windowStart, windowEnd);
+        } catch (RuntimeException e) {
+            error = e;
+            // Échec du passage lui-même (base indisponible…) : repris comme des échecs d'envoi
+            failures = 1;
+            logger.error("💥 Passage de rappels en échec", e);
+        } finally {
+            operationMetrics.stop(sample, "scheduler.run", error, "job",
+                    retry == 0 ? "reminders_24h" : "reminders_24h_retry");
+        }
+
+        if (failures == 0) {
             return;
         }
+        if (retry >= MAX_RETRY_PASSES) {
+            logger.error("❌ {} rappel(s) non envoyé(s) après {} reprise(s), abandon pour la fenêtre du {}",
+                    failures, retry, windowStart.toLocalDate());
+            return;
+        }
+        Duration delay = RETRY_BACKOFF.multipliedBy(1L << retry);
+        logger.warn("🔁 {} rappel(s) en échec, nouvelle tentative dans {} min", failures, delay.toMinutes());
+        taskScheduler.schedule(() -> runPass(windowStart, windowEnd, retry + 1), Instant.now().plus(delay));
+    }
 
-        logger.info("🚀 Démarrage de l'envoi des rappels 24h avant événement...");
+    /**
+     * Parcourt les candidats par pages (pagination par id) et envoie chaque page en parallèle.
+     * Idempotent : reminderSentAt est posé avant l'envoi, une nouvelle exécution (ou un redémarrage)
+     * ne reprend que les réservations sans rappel.
+     *
+     * @return Nombre de rappels en échec (libérés pour une reprise)
+     */
+    private int doSend24HourReminders(LocalDateTime tomorrowStart, LocalDateTime tomorrowEnd) {
+        AtomicInteger sentCount = new AtomicInteger();
+        AtomicInteger errorCount = new AtomicInteger();
+        long afterId = 0;
+
+        while (true) {
+            List<Reservation> page = reservationRepository.findReminderCandidates(
+                    tomorrowStart, tomorrowEnd, STATUTS_RAPPEL, afterId,
+                    PageRequest.of(0, ReminderConfig.CHUNK_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
 
-        LocalDateTime tomorrowStart = now.plusDays(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime tomorrowEnd = now.plusDays(1).withHour(23).withMinute(59).withSecond(59);
+            // Lots envoyés chacun sur une connexion SMTP, plusieurs lots en parallèle
+            List<CompletableFuture<Void>> envois = new ArrayList<>();
+            for (int from = 0; from < page.size(); from += ReminderConfig.BATCH_SIZE) {
+                List<Reservation> lot = page.subList(from, Math.min(from + ReminderConfig.BATCH_SIZE, page.size()));
+                envois.add(CompletableFuture.runAsync(
+                        () -> sendReminderBatch(lot, sentCount, errorCount), reminderExecutor));
+            }
+            // Page suivante une fois celle-ci terminée : mémoire bornée à une page
+            CompletableFuture.allOf(envois.toArray(new CompletableFuture[0])).join();
 
-        List<Reservation> reservations = reservationRepository
-                .findByEvenement_DateDebutBetween(tomorrowStart, tomorrowEnd);
+            afterId = page.get(page.size() - 1).getId();
+        }
 
-        logger.info("📋 {} réservation(s) trouvée(s) pour les événements de demain", reservations.size());
+        operationMetrics.increment("scheduler.reminders", sentCount.get(), "outcome", "sent");
+        operationMetrics.increment("scheduler.reminders", errorCount.get(), "outcome", "failed");
 
-        if (reservations.isEmpty()) {
-            logger.info("⚠️ Aucune réservation trouvée pour demain");
-            lastRunDate = now;
-            return;
-        }
+        logger.info("📊 Résultat final: {} email(s) envoyé(s), {} erreur(s)", sentCount.get(), errorCount.get());
+        return errorCount.get();
+    }
 
-        int sentCount = 0;
-        int errorCount = 0;
-
-        for (Reservation reservation : reservations) {
-            try {
-                // ✅ CHECK IF USER ALREADY RECEIVED REMINDER FOR THIS EVENT
-                // You might want to add a field in Reservation like 'reminderSent' or
-                // track in a separate table
-
-                boolean emailSent = emailService.sendEventReminder(reservation);
-
-                if (emailSent) {
-                    sentCount++;
-                    logger.info("✅ Rappel envoyé pour la réservation: {} à {}",
-                            reservation.getCodeReservation(),
-                            reservation.getUtilisateur().getEmail());
-
-                    // ✅ OPTIONAL: Mark as sent in database
-                    // reservation.setReminderSent(true);
-                    // reservationRepository.save(reservation);
-                } else {
-                    errorCount++;
-                    logger.error("❌ Échec d'envoi pour la réservation: {}",
-                            reservation.getCodeReservation());
-                }
-
-            } catch (Exception e) {
-                errorCount++;
-                logger.error("💥 Erreur pour la réservation {}: {}",
-                        reservation.getCodeReservation(), e.getMessage());
+    private void sendReminderBatch(List<Reservation> lot, AtomicInteger sentCount, AtomicInteger errorCount) {
+        // Ignore les réservations prises par une autre exécution entre-temps
+        List<Reservation> claimed = new ArrayList<>(lot.size());
+        for (Reservation reservation : lot) {
+            if (reservationRepository.claimReminder(reservation.getId(), LocalDateTime.now()) == 1) {
+                claimed.add(reservation);
             }
         }
 
-        // ✅ UPDATE LAST RUN DATE
-        lastRunDate = now;
-        logger.info("📊 Résultat final: {} email(s) envoyé(s), {} erreur(s)", sentCount, errorCount);
+        Set<Long> failed;
+        try {
+            failed = emailService.sendEventReminders(claimed);
+        } catch (Exception e) {
+            logger.error("💥 Erreur lors de l'envoi d'un lot de {} rappel(s): {}", claimed.size(), e.getMessage());
+            failed = claimed.stream().map(Reservation::getId).collect(Collectors.toSet());
+        }
+
+        for (Long id : failed) {
+            reservationRepository.releaseReminder(id);
+        }
+        sentCount.addAndGet(claimed.size() - failed.size());
+        errorCount.addAndGet(failed.size());
+        if (!failed.isEmpty()) {
+            logger.error("❌ Échec d'envoi pour {} réservation(s) sur {}", failed.size(), claimed.size());
+        }
     }
 
     /**
@@ -104,7 +181,6 @@ public class EventReminderSchedule {
      * Commenter l'annotation @Scheduled pour désactiver
      */
     // @Scheduled(cron = "0 0 * * * ?") // Toutes les heures - DÉSACTIVÉ
-    @Transactional
     public void testSchedulerHourly() {
         logger.info("🧪 TEST HEUREMENT - Cette méthode est désactivée en production");
         // Ne pas appeler send24HourReminders() ici
@@ -114,7 +190,6 @@ public class EventReminderSchedule {
      * 🧪 MÉTHODE DE TEST SEULEMENT - À DÉSACTIVER EN PRODUCTION
      */
     // @Scheduled(fixedDelay = 60000, initialDelay = 10000) // DÉSACTIVÉ
-    @Transactional
     public void startupTest() {
         logger.info("🔧 TEST DÉMARRAGE - Cette méthode est désactivée en production");
     }
@@ -1,5 +1,7 @@
 package org.example.reservation_event.scheduler;
 
+import io.micrometer.core.instrument.Timer;
+import org.example.reservation_event.monitoring.OperationMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -16,6 +18,9 @@ public class EventStatusUpdateScheduler {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private OperationMetrics operationMetrics;
+
     /**
      * FIXED: Uses correct column names (uppercase as in database)
      * Runs every 2 minutes
@@ -23,6 +28,9 @@ public class EventStatusUpdateScheduler {
     @Scheduled(cron = "0 */2 * * * ?")
     @Transactional
     public void updateEventStatuses() {
+        Timer.Sample sample = operationMetrics.start();
+        boolean success = true;
+
         System.out.println("\n" + "=".repeat(50));
         System.out.println("📅 EVENT STATUS UPDATE - EVERY 2 MINUTES");
         System.out.println("=".repeat(50));
@@ -41,6 +49,7 @@ public class EventStatusUpdateScheduler {
                 """;
 
             int updated = jdbcTemplate.update(updateSql, now);
+            operationMetrics.increment("scheduler.events_terminated", updated);
 
             if (updated > 0) {
                 System.out.println("✅ Updated " + updated + " event(s) to TERMINE");
@@ -108,10 +117,13 @@ public class EventStatusUpdateScheduler {
             }
 
         } catch (Exception e) {
+            success = false;
             System.err.println("❌ ERROR: " + e.getMessage());
             e.printStackTrace();
         }
 
+        operationMetrics.stop(sample, "scheduler.run", success, "job", "event_status_update");
+
         System.out.println("=".repeat(50) + "\n");
     }
 }
\ No newline at end of file
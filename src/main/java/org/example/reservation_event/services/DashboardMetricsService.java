@@ -0,0 +1,53 @@
+package org.example.reservation_event.services;
+
+import org.example.reservation_event.Enums.EventStatut;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.dtos.MonthlyRevenueDTO;
+import org.example.reservation_event.dtos.TopRatedEventDTO;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DashboardMetricsService {
+
+    /**
+     * Nombre d'utilisateurs par rôle
+     */
+    Map<UserRole, Long> countUsersByRole();
+
+    /**
+     * Nombre d'événements par statut
+     */
+    Map<EventStatut, Long> countEventsByStatus();
+
+    /**
+     * Nombre de réservations par statut
+     */
+    Map<ReservationStatut, Long> countReservationsByStatus();
+
+    /**
+     * Revenu total des réservations confirmées
+     */
+    double getTotalConfirmedRevenue();
+
+    /**
+     * Revenus confirmés par mois, dans l'ordre chronologique
+     */
+    List<MonthlyRevenueDTO> getRevenueByMonth();
+
+    /**
+     * Réservations actives par catégorie (libellé de la catégorie → nombre)
+     */
+    Map<String, Long> countReservationsByCategory();
+
+    /**
+     * Histogramme des notes (1 à 5 → nombre d'avis)
+     */
+    Map<Integer, Long> getRatingHistogram();
+
+    /**
+     * Événements les mieux notés ayant au moins minReviews avis
+     */
+    List<TopRatedEventDTO> getTopRatedEvents(long minReviews, int limit);
+}
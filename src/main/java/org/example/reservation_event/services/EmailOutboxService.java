@@ -0,0 +1,31 @@
+package org.example.reservation_event.services;
+
+import org.example.reservation_event.classes.EmailOutbox;
+import org.example.reservation_event.classes.Reservation;
+
+import java.util.List;
+
+public interface EmailOutboxService {
+
+    /**
+     * Programmer l'email de confirmation, dans la transaction de la réservation
+     */
+    void enqueueReservationConfirmation(Reservation reservation);
+
+    /**
+     * Programmer l'email d'annulation (raison optionnelle), dans la transaction de l'annulation
+     */
+    void enqueueReservationCancellation(Reservation reservation, String reason);
+
+    /**
+     * Prendre jusqu'à max emails à envoyer ; chacun est réservé pour la durée d'un bail
+     */
+    List<EmailOutbox> claimDue(int max);
+
+    void markSent(Long outboxId);
+
+    /**
+     * Reprogrammer l'email avec un délai croissant, ou l'abandonner après le nombre maximal de tentatives
+     */
+    void markFailed(Long outboxId, String error);
+}
@@ -2,16 +2,19 @@ package org.example.reservation_event.services;
 
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.Exceptions.*;
 import org.example.reservation_event.dtos.EventDTO;
 import org.example.reservation_event.dtos.EventLightDTO;
+import org.example.reservation_event.dtos.OrganizerStatsDTO;
 import org.example.reservation_event.dtos.ReservationDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -27,18 +30,28 @@ public interface EventService {
 
     void deleteEvent(Event event) throws BusinessException;
 
-    List<Event> searchEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
-                             Double minPrice, Double maxPrice, EventStatut statut);
+    Page<Event> searchEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
+                             Double minPrice, Double maxPrice, EventStatut statut,
+                             EventCategorie categorie, Pageable pageable);
+
+    // Même recherche sans COUNT, pour les grilles paresseuses (total fourni par countEvents)
+    List<Event> findEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
+                           Double minPrice, Double maxPrice, EventStatut statut,
+                           EventCategorie categorie, Pageable pageable);
+
+    long countEvents(String keyword, String location, LocalDateTime start, LocalDateTime end,
+                     Double minPrice, Double maxPrice, EventStatut statut, EventCategorie categorie);
 
     void updateTerminatedEvents();
 
     List<Event> getPopularEvents(int limit);
 
-    Map<String, Object> getOrganizerStats(User organizer);
+    OrganizerStatsDTO getOrganizerStats(User organizer);
 
     Event getEventById(Long id) throws ResourceNotFoundException;
     boolean isReservable(Event event);
     int getPlacesDisponibles(Event event);
+    double getRevenuTotal(Event event);
     Optional<EventDTO> getEventDTOById(Long id);
     Optional<EventDTO> getEventForReservation(Long id);
     List<EventLightDTO> getAllClientEvents(
@@ -6,11 +6,14 @@ import org.example.reservation_event.classes.User;
 import org.example.reservation_event.Enums.ReservationStatut;
 import org.example.reservation_event.Exceptions.*;
 import org.example.reservation_event.dtos.ReservationSummaryDTO;
+import org.example.reservation_event.dtos.ReservationTotalsDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public interface ReservationService {
@@ -20,7 +23,18 @@ public interface ReservationService {
 
     Reservation confirmReservation(Reservation reservation) throws BusinessException;
 
-    void cancelReservation(Long reservationId) throws BusinessException;
+    /**
+     * Annule une réservation active et libère ses places.
+     *
+     * @return false si elle était déjà annulée (aucun changement)
+     */
+    boolean cancelReservation(Long reservationId) throws BusinessException;
+
+    /**
+     * Annuler une réservation à la demande du client et programmer l'email d'annulation
+     * dans la même transaction (envoyé ensuite par l'outbox)
+     */
+    void cancelReservationAndNotify(Long reservationId, String reason) throws BusinessException;
 
     Reservation getReservationByCode(String code) throws ResourceNotFoundException;
 
@@ -43,4 +57,46 @@ public interface ReservationService {
     List<Reservation> getReservationsByEvent(Event event);
     Reservation saveReservation(Reservation reservation);
     boolean hasUserReservedEvent(Event event, User user);
-}
\ No newline at end of file
+
+    /**
+     * Une page de réservations filtrée et triée pour l'admin (filtres null ou vides ignorés)
+     */
+    List<Reservation> searchReservations(String search, ReservationStatut statut,
+                                          LocalDateTime debut, LocalDateTime fin, Pageable pageable);
+
+    /**
+     * Totaux (nombre, confirmées, places, revenu) des réservations correspondant aux mêmes filtres
+     */
+    ReservationTotalsDTO getReservationTotals(String search, ReservationStatut statut,
+                                              LocalDateTime debut, LocalDateTime fin);
+
+    /**
+     * Une page des réservations d'un événement, filtrée et triée (Pageable.unpaged() pour toutes)
+     */
+    List<Reservation> searchEventReservations(Long eventId, String search, ReservationStatut statut, Pageable pageable);
+
+    /**
+     * Réservations filtrées d'un événement par tranches de taille fixe, dans l'ordre des id,
+     * à partir de afterId exclu (0 pour la première tranche)
+     */
+    List<Reservation> searchEventReservationsAfter(Long eventId, String search, ReservationStatut statut,
+                                                   Long afterId, int limit);
+
+    /**
+     * Réservations filtrées d'un événement en flux, dans l'ordre des id (export).
+     * À consommer dans la transaction de l'appelant puis à fermer.
+     */
+    Stream<Reservation> streamEventReservations(Long eventId, String search, ReservationStatut statut);
+
+    /**
+     * Réservations filtrées de la vue admin en flux, dans l'ordre des id (export).
+     * À consommer dans la transaction de l'appelant puis à fermer.
+     */
+    Stream<Reservation> streamReservations(String search, ReservationStatut statut,
+                                           LocalDateTime debut, LocalDateTime fin);
+
+    /**
+     * Totaux des réservations d'un événement correspondant aux filtres (null = toutes)
+     */
+    ReservationTotalsDTO getEventReservationTotals(Long eventId, String search, ReservationStatut statut);
+}
@@ -0,0 +1,47 @@
+package org.example.reservation_event.services;
+
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.dtos.MonthlyRevenueDTO;
+
+import java.util.List;
+
+public interface RevenueRollupService {
+
+    /**
+     * Ajouter une réservation qui vient d'être confirmée à la table revenue_monthly
+     */
+    void recordConfirmed(Reservation reservation);
+
+    /**
+     * Retirer une réservation confirmée qui vient d'être annulée
+     */
+    void recordCancelled(Reservation reservation);
+
+    /**
+     * Retirer toutes les réservations confirmées d'un événement avant son annulation groupée
+     */
+    void removeConfirmedForEvent(Event event);
+
+    /**
+     * Reconstruire entièrement revenue_monthly à partir des réservations confirmées
+     *
+     * @return nombre de lignes (mois × catégorie) recréées
+     */
+    int rebuild();
+
+    /**
+     * Vrai si la table ne contient encore aucune ligne
+     */
+    boolean isEmpty();
+
+    /**
+     * Revenus confirmés par mois, dans l'ordre chronologique
+     */
+    List<MonthlyRevenueDTO> getRevenueByMonth();
+
+    /**
+     * Revenu confirmé total
+     */
+    double getTotalRevenue();
+}
@@ -16,21 +16,14 @@ import jakarta.annotation.security.RolesAllowed;
 import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.Enums.ReservationStatut;
 import org.example.reservation_event.Enums.UserRole;
-import org.example.reservation_event.classes.Event;
-import org.example.reservation_event.classes.Reservation;
-import org.example.reservation_event.classes.Review;
-import org.example.reservation_event.classes.User;
-import org.example.reservation_event.repositories.EventRepository;
-import org.example.reservation_event.repositories.ReservationRepository;
-import org.example.reservation_event.repositories.ReviewRepository;
-import org.example.reservation_event.repositories.UserRepository;
+import org.example.reservation_event.dtos.MonthlyRevenueDTO;
+import org.example.reservation_event.dtos.TopRatedEventDTO;
+import org.example.reservation_event.services.DashboardMetricsService;
 import org.example.reservation_event.ui.MainLayout;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * AdminDashboardView - Vue d'ensemble globale de la plateforme
@@ -50,25 +43,15 @@ import java.util.stream.Collectors;
 @RolesAllowed("ADMIN")
 public class AdminDashboardView extends VerticalLayout {
 
-    private final UserRepository userRepository;
-    private final EventRepository eventRepository;
-    private final ReservationRepository reservationRepository;
-    private final ReviewRepository reviewRepository;
+    private final DashboardMetricsService dashboardMetricsService;
 
     // Composants UI
     private Div statsContainer;
 
     @Autowired
-    public AdminDashboardView(
-            UserRepository userRepository,
-            EventRepository eventRepository,
-            ReservationRepository reservationRepository,
-            ReviewRepository reviewRepository) {
+    public AdminDashboardView(DashboardMetricsService dashboardMetricsService) {
 
-        this.userRepository = userRepository;
-        this.eventRepository = eventRepository;
-        this.reservationRepository = reservationRepository;
-        this.reviewRepository = reviewRepository;
+        this.dashboardMetricsService = dashboardMetricsService;
 
         setSizeFull();
         setPadding(true);
@@ -151,35 +134,27 @@ public class AdminDashboardView extends VerticalLayout {
 
     private void loadStatistics() {
         try {
-            // Charger toutes les données
-            List<User> allUsers = userRepository.findAll();
-            List<Event> allEvents = eventRepository.findAll();
-            List<Reservation> allReservations = reservationRepository.findAll();
-            List<Review> allReviews = reviewRepository.findAll();
-            // Calculer les statistiques
-            Map<UserRole, Long> usersByRole = allUsers.stream()
-                    .collect(Collectors.groupingBy(User::getRole, Collectors.counting()));
+            // Charger les agrégats (GROUP BY côté base)
+            Map<UserRole, Long> usersByRole = dashboardMetricsService.countUsersByRole();
+            Map<EventStatut, Long> eventsByStatus = dashboardMetricsService.countEventsByStatus();
+            Map<ReservationStatut, Long> reservationsByStatus = dashboardMetricsService.countReservationsByStatus();
+            Map<Integer, Long> ratingHistogram = dashboardMetricsService.getRatingHistogram();
 
-            Map<EventStatut, Long> eventsByStatus = allEvents.stream()
-                    .collect(Collectors.groupingBy(Event::getStatut, Collectors.counting()));
+            long totalUsers = sum(usersByRole);
+            long totalEvents = sum(eventsByStatus);
+            long totalReservations = sum(reservationsByStatus);
+            long totalReviews = sum(ratingHistogram);
 
-            long totalReservations = allReservations.size();
+            long confirmedReservations = reservationsByStatus.getOrDefault(ReservationStatut.CONFIRMEE, 0L);
 
-            long confirmedReservations = allReservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                    .count();
-
-            double totalRevenue = allReservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                    .mapToDouble(Reservation::getMontantTotal)
-                    .sum();
+            double totalRevenue = dashboardMetricsService.getTotalConfirmedRevenue();
 
             // Créer les cartes de statistiques principales
             statsContainer.removeAll();
 
             statsContainer.add(createStatCard(
                     "👥 Utilisateurs Total",
-                    String.valueOf(allUsers.size()),
+                    String.valueOf(totalUsers),
                     VaadinIcon.USERS,
                     "#4CAF50",
                     "+" + usersByRole.getOrDefault(UserRole.CLIENT, 0L) + " clients"
@@ -187,7 +162,7 @@ public class AdminDashboardView extends VerticalLayout {
 
             statsContainer.add(createStatCard(
                     "📅 Événements",
-                    String.valueOf(allEvents.size()),
+                    String.valueOf(totalEvents),
                     VaadinIcon.CALENDAR,
                     "#2196F3",
                     eventsByStatus.getOrDefault(EventStatut.PUBLIE, 0L) + " publiés"
@@ -210,43 +185,47 @@ public class AdminDashboardView extends VerticalLayout {
             ));
             statsContainer.add(createStatCard(
                     "⭐ Avis Total",
-                    String.valueOf(allReviews.size()),
+                    String.valueOf(totalReviews),
                     VaadinIcon.STAR,
                     "#f59e0b",
-                    calculateAverageRating(allReviews) + " / 5 en moyenne"
+                    String.format("%.1f", calculateAverageRating(ratingHistogram)) + " / 5 en moyenne"
             ));
             // ✅ AJOUTER LES GRAPHIQUES (Bonus du cahier des charges)
-            createRevenueByMonthChart(allReservations);
-            createReservationsByCategoryChart(allEvents);
+            createRevenueByMonthChart(dashboardMetricsService.getRevenueByMonth());
+            createReservationsByCategoryChart();
             createEventStatusChart(eventsByStatus);
-            createReviewsOverviewChart(allReviews);
-            createTopRatedEventsChart(allEvents, allReviews);
+            createReviewsOverviewChart(ratingHistogram, totalReviews);
+            createTopRatedEventsChart(dashboardMetricsService.getTopRatedEvents(3, 5));
 
             // Créer les statistiques détaillées
             createUserRoleStats(usersByRole);
             createEventStatusStats(eventsByStatus);
-            createReservationStats(allReservations);
+            createReservationStats(reservationsByStatus);
 
         } catch (Exception e) {
             System.err.println("Erreur lors du chargement des statistiques: " + e.getMessage());
             e.printStackTrace();
         }
     }
-    // 3️⃣ NOUVELLE MÉTHODE : Calculer la moyenne globale
-    private String calculateAverageRating(List<Review> reviews) {
-        if (reviews.isEmpty()) return "0.0";
-        double average = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-        return String.format("%.1f", average);
+    private long sum(Map<?, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // 3️⃣ NOUVELLE MÉTHODE : Calculer la moyenne globale à partir de l'histogramme
+    private double calculateAverageRating(Map<Integer, Long> ratingHistogram) {
+        long total = sum(ratingHistogram);
+        if (total == 0) return 0.0;
+        long weighted = ratingHistogram.entrySet().stream()
+                .mapToLong(e -> e.getKey() * e.getValue())
+                .sum();
+        return (double) weighted / total;
     }
 
     // 4️⃣ NOUVELLE MÉTHODE : Vue d'ensemble des avis
-    private void createReviewsOverviewChart(List<Review> reviews) {
+    private void createReviewsOverviewChart(Map<Integer, Long> reviewsByRating, long totalReviews) {
         Div chartContainer = createChartContainer("⭐ Distribution des Notes");
 
-        if (reviews.isEmpty()) {
+        if (totalReviews == 0) {
             Span noData = new Span("Aucun avis disponible");
             noData.getStyle()
                     .set("color", "var(--lumo-secondary-text-color)")
@@ -262,10 +241,6 @@ public class AdminDashboardView extends VerticalLayout {
         chart.setPadding(false);
         chart.setSpacing(true);
 
-        // Compter les avis par note (5 étoiles -> 1 étoile)
-        Map<Integer, Long> reviewsByRating = reviews.stream()
-                .collect(Collectors.groupingBy(Review::getRating, Collectors.counting()));
-
         long maxCount = reviewsByRating.values().stream().max(Long::compareTo).orElse(1L);
 
         // Afficher de 5 à 1 étoiles
@@ -289,10 +264,7 @@ public class AdminDashboardView extends VerticalLayout {
                 .set("padding", "16px")
                 .set("margin-top", "16px");
 
-        double average = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+        double average = calculateAverageRating(reviewsByRating);
 
         HorizontalLayout statsRow = new HorizontalLayout();
         statsRow.setWidthFull();
@@ -301,9 +273,9 @@ public class AdminDashboardView extends VerticalLayout {
         );
 
         statsRow.add(
-                createMiniStat("Total", String.valueOf(reviews.size())),
+                createMiniStat("Total", String.valueOf(totalReviews)),
                 createMiniStat("Moyenne", String.format("%.1f / 5", average)),
-                createMiniStat("Satisfaits", calculateSatisfactionRate(reviews) + "%")
+                createMiniStat("Satisfaits", calculateSatisfactionRate(reviewsByRating, totalReviews) + "%")
         );
 
         statsBox.add(statsRow);
@@ -314,26 +286,11 @@ public class AdminDashboardView extends VerticalLayout {
     }
 
     // 5️⃣ NOUVELLE MÉTHODE : Top événements les mieux notés
-    private void createTopRatedEventsChart(List<Event> allEvents, List<Review> allReviews) {
+    private void createTopRatedEventsChart(List<TopRatedEventDTO> topRatedEvents) {
         Div chartContainer = createChartContainer("🏆 Top 5 Événements Les Mieux Notés");
 
-        // Grouper les avis par événement
-        Map<Long, List<Review>> reviewsByEvent = allReviews.stream()
-                .collect(Collectors.groupingBy(r -> r.getEvent().getId()));
-
-        // Calculer la moyenne par événement (min 3 avis)
-        Map<Event, Double> eventAverages = allEvents.stream()
-                .filter(e -> reviewsByEvent.containsKey(e.getId()))
-                .filter(e -> reviewsByEvent.get(e.getId()).size() >= 3)
-                .collect(Collectors.toMap(
-                        e -> e,
-                        e -> reviewsByEvent.get(e.getId()).stream()
-                                .mapToInt(Review::getRating)
-                                .average()
-                                .orElse(0.0)
-                ));
-
-        if (eventAverages.isEmpty()) {
+        // Top 5 déjà trié par moyenne (min 3 avis), calculé côté base
+        if (topRatedEvents.isEmpty()) {
             Span noData = new Span("Pas assez d'avis (minimum 3 par événement)");
             noData.getStyle()
                     .set("color", "var(--lumo-secondary-text-color)")
@@ -349,66 +306,61 @@ public class AdminDashboardView extends VerticalLayout {
         chart.setPadding(false);
         chart.setSpacing(true);
 
-        // Top 5
-        eventAverages.entrySet().stream()
-                .sorted(Map.Entry.<Event, Double>comparingByValue().reversed())
-                .limit(5)
-                .forEach(entry -> {
-                    Event event = entry.getKey();
-                    double average = entry.getValue();
-                    int reviewCount = reviewsByEvent.get(event.getId()).size();
-
-                    HorizontalLayout row = new HorizontalLayout();
-                    row.setWidthFull();
-                    row.setAlignItems(FlexComponent.Alignment.CENTER);
-                    row.setSpacing(true);
-                    row.getStyle()
-                            .set("background", "var(--lumo-contrast-5pct)")
-                            .set("border-radius", "8px")
-                            .set("padding", "12px")
-                            .set("margin-bottom", "8px");
-
-                    VerticalLayout info = new VerticalLayout();
-                    info.setSpacing(false);
-                    info.setPadding(false);
-
-                    Span title = new Span(event.getTitre());
-                    title.getStyle()
-                            .set("font-weight", "600")
-                            .set("color", "var(--lumo-primary-text-color)");
-
-                    Span details = new Span(reviewCount + " avis • " + event.getCategorie().getLabel());
-                    details.getStyle()
-                            .set("font-size", "var(--lumo-font-size-s)")
-                            .set("color", "var(--lumo-secondary-text-color)");
-
-                    info.add(title, details);
-
-                    HorizontalLayout stars = new HorizontalLayout();
-                    stars.setSpacing(false);
-                    stars.getStyle().set("gap", "2px");
-
-                    int fullStars = (int) Math.round(average);
-                    for (int i = 0; i < fullStars; i++) {
-                        Icon star = new Icon(VaadinIcon.STAR);
-                        star.setSize("16px");
-                        star.setColor("#f59e0b");
-                        stars.add(star);
-                    }
-
-                    Span rating = new Span(String.format("%.1f", average));
-                    rating.getStyle()
-                            .set("font-weight", "700")
-                            .set("color", "#f59e0b")
-                            .set("font-size", "var(--lumo-font-size-l)")
-                            .set("margin-left", "8px");
-
-                    row.add(info);
-                    row.expand(info);
-                    row.add(stars, rating);
-
-                    chart.add(row);
-                });
+        topRatedEvents.forEach(event -> {
+            double average = event.getAverageRating();
+            long reviewCount = event.getReviewCount();
+
+            HorizontalLayout row = new HorizontalLayout();
+            row.setWidthFull();
+            row.setAlignItems(FlexComponent.Alignment.CENTER);
+            row.setSpacing(true);
+            row.getStyle()
+                    .set("background", "var(--lumo-contrast-5pct)")
+                    .set("border-radius", "8px")
+                    .set("padding", "12px")
+                    .set("margin-bottom", "8px");
+
+            VerticalLayout info = new VerticalLayout();
+            info.setSpacing(false);
+            info.setPadding(false);
+
+            Span title = new Span(event.getTitre());
+            title.getStyle()
+                    .set("font-weight", "600")
+                    .set("color", "var(--lumo-primary-text-color)");
+
+            Span details = new Span(reviewCount + " avis • " + event.getCategorie().getLabel());
+            details.getStyle()
+                    .set("font-size", "var(--lumo-font-size-s)")
+                    .set("color", "var(--lumo-secondary-text-color)");
+
+            info.add(title, details);
+
+            HorizontalLayout stars = new HorizontalLayout();
+            stars.setSpacing(false);
+            stars.getStyle().set("gap", "2px");
+
+            int fullStars = (int) Math.round(average);
+            for (int i = 0; i < fullStars; i++) {
+                Icon star = new Icon(VaadinIcon.STAR);
+                star.setSize("16px");
+                star.setColor("#f59e0b");
+                stars.add(star);
+            }
+
+            Span rating = new Span(String.format("%.1f", average));
+            rating.getStyle()
+                    .set("font-weight", "700")
+                    .set("color", "#f59e0b")
+                    .set("font-size", "var(--lumo-font-size-l)")
+                    .set("margin-left", "8px");
+
+            row.add(info);
+            row.expand(info);
+            row.add(stars, rating);
+
+            chart.add(row);
+        });
 
         chartContainer.add(chart);
         addChartToContainer(chartContainer);
@@ -426,14 +378,15 @@ public class AdminDashboardView extends VerticalLayout {
         };
     }
 
-    private String calculateSatisfactionRate(List<Review> reviews) {
-        if (reviews.isEmpty()) return "0";
+    private String calculateSatisfactionRate(Map<Integer, Long> reviewsByRating, long totalReviews) {
+        if (totalReviews == 0) return "0";
 
-        long satisfied = reviews.stream()
-                .filter(r -> r.getRating() >= 4)
-                .count();
+        long satisfied = reviewsByRating.entrySet().stream()
+                .filter(e -> e.getKey() >= 4)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
 
-        double rate = (satisfied * 100.0) / reviews.size();
+        double rate = (satisfied * 100.0) / totalReviews;
         return String.format("%.0f", rate);
     }
 
@@ -522,17 +475,9 @@ public class AdminDashboardView extends VerticalLayout {
     /**
      * Graphique des revenus par mois (Bonus) - VERSION LINÉAIRE
      */
-    private void createRevenueByMonthChart(List<Reservation> reservations) {
+    private void createRevenueByMonthChart(List<MonthlyRevenueDTO> revenueByMonth) {
         Div chartContainer = createChartContainer("📈 Revenus par Mois");
 
-        // Calculer les revenus par mois
-        Map<String, Double> revenueByMonth = reservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                .collect(Collectors.groupingBy(
-                        r -> r.getDateReservation().format(DateTimeFormatter.ofPattern("MMM yyyy")),
-                        Collectors.summingDouble(Reservation::getMontantTotal)
-                ));
-
         // Créer le graphique linéaire
         Div chart = new Div();
         chart.getStyle()
@@ -550,13 +495,11 @@ public class AdminDashboardView extends VerticalLayout {
                     .set("padding", "40px");
             chart.add(noData);
         } else {
-            // Trier par date
-            List<Map.Entry<String, Double>> sortedEntries = revenueByMonth.entrySet().stream()
-                    .sorted(Map.Entry.comparingByKey())
-                    .collect(Collectors.toList());
+            // Déjà trié par ordre chronologique (année, mois)
+            List<MonthlyRevenueDTO> sortedEntries = revenueByMonth;
 
             double maxRevenue = sortedEntries.stream()
-                    .map(Map.Entry::getValue)
+                    .map(MonthlyRevenueDTO::getRevenu)
                     .max(Double::compareTo)
                     .orElse(1.0);
 
@@ -570,8 +513,8 @@ public class AdminDashboardView extends VerticalLayout {
             StringBuilder svgPoints = new StringBuilder();
 
             for (int i = 0; i < pointCount; i++) {
-                Map.Entry<String, Double> entry = sortedEntries.get(i);
-                double value = entry.getValue();
+                MonthlyRevenueDTO entry = sortedEntries.get(i);
+                double value = entry.getRevenu();
 
                 double x = (double) i / (pointCount - 1) * 100;
                 double y = 100 - (value / maxRevenue * 80); // Inverser Y et scale à 80%
@@ -586,7 +529,7 @@ public class AdminDashboardView extends VerticalLayout {
                 svgPoints.append(String.format(
                         "<circle cx='%.1f%%' cy='%.1f%%' r='4' fill='#2196F3' stroke='var(--lumo-base-color)' stroke-width='2'>" +
                                 "<title>%s: %.2f DH</title></circle>",
-                        x, y, entry.getKey(), value
+                        x, y, entry.getLabel(), value
                 ));
             }
 
@@ -624,14 +567,14 @@ public class AdminDashboardView extends VerticalLayout {
 
             // Afficher seulement le premier et dernier label si trop de points
             if (pointCount <= 6) {
-                for (Map.Entry<String, Double> entry : sortedEntries) {
-                    Span label = new Span(entry.getKey());
+                for (MonthlyRevenueDTO entry : sortedEntries) {
+                    Span label = new Span(entry.getLabel());
                     label.getStyle().set("flex", "1").set("text-align", "center");
                     labelsContainer.add(label);
                 }
             } else {
-                Span firstLabel = new Span(sortedEntries.get(0).getKey());
-                Span lastLabel = new Span(sortedEntries.get(pointCount - 1).getKey());
+                Span firstLabel = new Span(sortedEntries.get(0).getLabel());
+                Span lastLabel = new Span(sortedEntries.get(pointCount - 1).getLabel());
                 labelsContainer.add(firstLabel, lastLabel);
             }
 
@@ -645,19 +588,11 @@ public class AdminDashboardView extends VerticalLayout {
     /**
      * Graphique des réservations par catégorie (Bonus)
      */
-    private void createReservationsByCategoryChart(List<Event> events) {
+    private void createReservationsByCategoryChart() {
         Div chartContainer = createChartContainer("🎭 Réservations par Catégorie");
 
-        // Calculer les réservations par catégorie
-        Map<String, Long> reservationsByCategory = events.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategorie().getLabel(),
-                        Collectors.summingLong(e ->
-                                e.getReservations().stream()
-                                        .filter(r -> r.getStatut() != ReservationStatut.ANNULEE)
-                                        .count()
-                        )
-                ));
+        // Réservations actives par catégorie (GROUP BY côté base)
+        Map<String, Long> reservationsByCategory = dashboardMetricsService.countReservationsByCategory();
 
         VerticalLayout chart = new VerticalLayout();
         chart.setPadding(false);
@@ -897,7 +832,7 @@ public class AdminDashboardView extends VerticalLayout {
         }
     }
 
-    private void createReservationStats(List<Reservation> reservations) {
+    private void createReservationStats(Map<ReservationStatut, Long> byStatus) {
         Div container = new Div();
         container.getStyle()
                 .set("background", "var(--lumo-base-color)")
@@ -917,9 +852,6 @@ public class AdminDashboardView extends VerticalLayout {
         stats.setSpacing(true);
         stats.setPadding(false);
 
-        Map<ReservationStatut, Long> byStatus = reservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getStatut, Collectors.counting()));
-
         for (ReservationStatut statut : ReservationStatut.values()) {
             long count = byStatus.getOrDefault(statut, 0L);
             stats.add(createStatRow(statut.getLabel(), count, statut.getColor()));
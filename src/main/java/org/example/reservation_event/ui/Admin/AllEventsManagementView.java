@@ -30,6 +30,7 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import jakarta.annotation.security.RolesAllowed;
 import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.Enums.EventStatut;
@@ -43,7 +44,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * AllEventsManagementView - Gestion de tous les événements
@@ -212,39 +212,39 @@ public class AllEventsManagementView extends VerticalLayout {
         // Colonne Titre
         grid.addColumn(Event::getTitre)
                 .setHeader("Titre")
-                .setSortable(true)
+                .setSortProperty("titre")
                 .setAutoWidth(true)
                 .setFlexGrow(1);
 
         // Colonne Organisateur
         grid.addColumn(event -> event.getOrganisateur().getNomComplet())
                 .setHeader("Organisateur")
-                .setSortable(true)
+                .setSortProperty("organisateur.nom")
                 .setAutoWidth(true);
 
         // Colonne Catégorie
         grid.addColumn(event -> event.getCategorie().getLabel())
                 .setHeader("Catégorie")
-                .setSortable(true)
+                .setSortProperty("categorie")
                 .setAutoWidth(true);
 
         // Colonne Date
         grid.addColumn(event -> event.getDateDebut()
                         .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
                 .setHeader("Date")
-                .setSortable(true)
+                .setSortProperty("dateDebut")
                 .setAutoWidth(true);
 
         // Colonne Ville
         grid.addColumn(Event::getVille)
                 .setHeader("Ville")
-                .setSortable(true)
+                .setSortProperty("ville")
                 .setAutoWidth(true);
 
         // Colonne Prix
         grid.addColumn(event -> String.format("%.2f DH", event.getPrixUnitaire()))
                 .setHeader("Prix")
-                .setSortable(true)
+                .setSortProperty("prixUnitaire")
                 .setAutoWidth(true);
 
         // Colonne Statut avec badge
@@ -266,7 +266,7 @@ public class AllEventsManagementView extends VerticalLayout {
                     return badge;
                 }))
                 .setHeader("Statut")
-                .setSortable(true)
+                .setSortProperty("statut")
                 .setAutoWidth(true);
 
         // Colonne Places
@@ -288,7 +288,7 @@ public class AllEventsManagementView extends VerticalLayout {
                     return places;
                 }))
                 .setHeader("Places")
-                .setSortable(true)
+                .setSortProperty("seatsReserved")
                 .setAutoWidth(true);
 
         // Colonne Actions
@@ -339,7 +339,7 @@ public class AllEventsManagementView extends VerticalLayout {
         Button deleteButton = new Button(VaadinIcon.TRASH.create());
         deleteButton.addThemeVariants(ButtonVariant.LUMO_SMALL, ButtonVariant.LUMO_ERROR);
         deleteButton.getElement().setAttribute("title", "Supprimer");
-        deleteButton.setEnabled(event.getReservations().isEmpty());
+        deleteButton.setEnabled(event.getPlacesReservees() == 0);
         deleteButton.addClickListener(e -> deleteEvent(event));
 
         actions.add(viewButton, editButton, deleteButton);
@@ -531,7 +531,7 @@ public class AllEventsManagementView extends VerticalLayout {
                 "Places disponibles: " + event.getPlacesDisponibles() + " places",
                 "Taux de remplissage: " + String.format("%.1f%%", event.getTauxRemplissage()),
                 "Prix unitaire: " + String.format("%.2f DH", event.getPrixUnitaire()),
-                "Revenu total: " + String.format("%.2f DH", event.getRevenuTotal())
+                "Revenu total: " + String.format("%.2f DH", eventService.getRevenuTotal(event))
         ));
 
         // Description
@@ -578,17 +578,33 @@ public class AllEventsManagementView extends VerticalLayout {
 
     private void loadEvents() {
         try {
-            List<Event> events = eventService.searchEvents(
+            // Un seul COUNT par changement de filtre ; le défilement ne charge que les pages, sans recompter
+            long total = eventService.countEvents(
                     currentSearch,
                     currentVilleFilter,
                     currentDateDebutFilter,
                     currentDateFinFilter,
                     currentPrixMinFilter,
                     currentPrixMaxFilter,
-                    currentStatusFilter
+                    currentStatusFilter,
+                    null
             );
 
-            grid.setItems(events);
+            // Chargement paresseux : la grille ne demande que la page affichée, filtrée et triée en base
+            grid.setItems(
+                    query -> eventService.findEvents(
+                            currentSearch,
+                            currentVilleFilter,
+                            currentDateDebutFilter,
+                            currentDateFinFilter,
+                            currentPrixMinFilter,
+                            currentPrixMaxFilter,
+                            currentStatusFilter,
+                            null,
+                            VaadinSpringDataHelpers.toSpringPageRequest(query)
+                    ).stream(),
+                    query -> (int) Math.min(total, Integer.MAX_VALUE)
+            );
         } catch (Exception e) {
             showErrorNotification("Erreur lors du chargement: " + e.getMessage());
         }
@@ -663,10 +679,7 @@ public class AllEventsManagementView extends VerticalLayout {
     }
 
     private void deleteEvent(Event event) {
-        if (!event.getReservations().isEmpty()) {
-            showErrorNotification("Impossible de supprimer un événement avec des réservations");
-            return;
-        }
+        // La présence de réservations (même annulées) est vérifiée par EventService.deleteEvent
 
         ConfirmDialog dialog = new ConfirmDialog();
         dialog.setHeader("Supprimer l'événement");
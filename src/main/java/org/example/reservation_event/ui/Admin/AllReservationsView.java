@@ -7,6 +7,7 @@ import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.H2;
@@ -23,34 +24,38 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import jakarta.annotation.security.RolesAllowed;
+import org.example.reservation_event.Enums.ExportFormat;
 import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.ServicesImplimentation.ReservationSheetExportService;
 import org.example.reservation_event.classes.Reservation;
-import org.example.reservation_event.repositories.ReservationRepository;
+import org.example.reservation_event.dtos.ReservationTotalsDTO;
+import org.example.reservation_event.services.ReservationService;
 import org.example.reservation_event.ui.MainLayout;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * AllReservationsView - Vue complète de toutes les réservations
  * Version améliorée avec support Dark Mode et affichage horizontal
  *
- * ✅ CORRECTION : Utilisation de JOIN FETCH pour éviter LazyInitializationException
+ * Grille paresseuse : chaque page est filtrée, triée et chargée en base (JOIN FETCH utilisateur / événement),
+ * le nombre de lignes et les cartes de statistiques viennent d'une seule requête d'agrégation.
  */
 @Route(value = "admin/reservations", layout = MainLayout.class)
 @PageTitle("Toutes les Réservations | Event Manager")
 @RolesAllowed("ADMIN")
 public class AllReservationsView extends VerticalLayout {
 
-    private final ReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final ReservationSheetExportService sheetExportService;
 
     // Composants UI
     private Grid<Reservation> grid;
@@ -67,8 +72,10 @@ public class AllReservationsView extends VerticalLayout {
     private LocalDateTime currentDateFinFilter = null;
 
     @Autowired
-    public AllReservationsView(ReservationRepository reservationRepository) {
-        this.reservationRepository = reservationRepository;
+    public AllReservationsView(ReservationService reservationService,
+                               ReservationSheetExportService sheetExportService) {
+        this.reservationService = reservationService;
+        this.sheetExportService = sheetExportService;
 
         setSizeFull();
         setPadding(true);
@@ -158,14 +165,18 @@ public class AllReservationsView extends VerticalLayout {
 
         Button exportButton = new Button("Exporter CSV", VaadinIcon.DOWNLOAD.create());
         exportButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
-        exportButton.addClickListener(e -> exportToCSV());
+        exportButton.addClickListener(e -> exportSheet(ExportFormat.CSV));
+
+        Button exportXlsxButton = new Button("Exporter Excel", VaadinIcon.FILE_TABLE.create());
+        exportXlsxButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
+        exportXlsxButton.addClickListener(e -> exportSheet(ExportFormat.XLSX));
 
         Button resetButton = new Button("Réinitialiser", VaadinIcon.REFRESH.create());
         resetButton.addClickListener(e -> resetFilters());
 
         HorizontalLayout filters = new HorizontalLayout(
                 searchField, statusFilter, dateDebutFilter, dateFinFilter,
-                exportButton, resetButton
+                exportButton, exportXlsxButton, resetButton
         );
         filters.setAlignItems(Alignment.END);
         filters.getStyle().set("margin-top", "20px");
@@ -181,7 +192,7 @@ public class AllReservationsView extends VerticalLayout {
         // Colonne Code
         grid.addColumn(Reservation::getCodeReservation)
                 .setHeader("Code")
-                .setSortable(true)
+                .setSortProperty("codeReservation")
                 .setAutoWidth(true);
 
         // Colonne Utilisateur
@@ -193,7 +204,7 @@ public class AllReservationsView extends VerticalLayout {
                     }
                 })
                 .setHeader("Utilisateur")
-                .setSortable(true)
+                .setSortProperty("utilisateur.nom")
                 .setAutoWidth(true);
 
         // Colonne Email
@@ -205,7 +216,7 @@ public class AllReservationsView extends VerticalLayout {
                     }
                 })
                 .setHeader("Email")
-                .setSortable(true)
+                .setSortProperty("utilisateur.email")
                 .setAutoWidth(true);
 
         // Colonne Événement
@@ -217,7 +228,7 @@ public class AllReservationsView extends VerticalLayout {
                     }
                 })
                 .setHeader("Événement")
-                .setSortable(true)
+                .setSortProperty("evenement.titre")
                 .setAutoWidth(true)
                 .setFlexGrow(1);
 
@@ -225,19 +236,19 @@ public class AllReservationsView extends VerticalLayout {
         grid.addColumn(reservation -> reservation.getDateReservation()
                         .format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
                 .setHeader("Date Réservation")
-                .setSortable(true)
+                .setSortProperty("dateReservation")
                 .setAutoWidth(true);
 
         // Colonne Places
         grid.addColumn(Reservation::getNombrePlaces)
                 .setHeader("Places")
-                .setSortable(true)
+                .setSortProperty("nombrePlaces")
                 .setAutoWidth(true);
 
         // Colonne Montant
         grid.addColumn(reservation -> String.format("%.2f DH", reservation.getMontantTotal()))
                 .setHeader("Montant")
-                .setSortable(true)
+                .setSortProperty("montantTotal")
                 .setAutoWidth(true);
 
         // Colonne Statut avec badge
@@ -255,7 +266,7 @@ public class AllReservationsView extends VerticalLayout {
                     return badge;
                 }))
                 .setHeader("Statut")
-                .setSortable(true)
+                .setSortProperty("statut")
                 .setAutoWidth(true);
 
         // Colonne Actions
@@ -276,81 +287,38 @@ public class AllReservationsView extends VerticalLayout {
         return new HorizontalLayout(viewButton);
     }
 
-    /**
-     * ✅ CORRECTION PRINCIPALE : Utilisation de la méthode avec JOIN FETCH
-     */
     private void loadReservations() {
         try {
-            // 🔥 UTILISER LA NOUVELLE MÉTHODE REPOSITORY AVEC JOIN FETCH
-            List<Reservation> allReservations = loadAllReservationsWithFetch();
-
-            // Appliquer les filtres
-            List<Reservation> filtered = allReservations.stream()
-                    .filter(r -> currentStatusFilter == null || r.getStatut() == currentStatusFilter)
-                    .filter(r -> currentDateDebutFilter == null ||
-                            !r.getDateReservation().isBefore(currentDateDebutFilter))
-                    .filter(r -> currentDateFinFilter == null ||
-                            !r.getDateReservation().isAfter(currentDateFinFilter))
-                    .filter(r -> {
-                        if (currentSearch == null || currentSearch.isEmpty()) return true;
-                        String search = currentSearch.toLowerCase();
-                        try {
-                            return r.getCodeReservation().toLowerCase().contains(search) ||
-                                    r.getUtilisateur().getNomComplet().toLowerCase().contains(search) ||
-                                    r.getUtilisateur().getEmail().toLowerCase().contains(search) ||
-                                    r.getEvenement().getTitre().toLowerCase().contains(search);
-                        } catch (Exception e) {
-                            return false;
-                        }
-                    })
-                    .collect(Collectors.toList());
-
-            grid.setItems(filtered);
-            updateStats(filtered);
+            // Une seule requête d'agrégation par changement de filtre : taille de la grille + cartes
+            ReservationTotalsDTO totals = reservationService.getReservationTotals(
+                    currentSearch, currentStatusFilter, currentDateDebutFilter, currentDateFinFilter);
+
+            grid.setItems(
+                    query -> reservationService.searchReservations(
+                            currentSearch,
+                            currentStatusFilter,
+                            currentDateDebutFilter,
+                            currentDateFinFilter,
+                            VaadinSpringDataHelpers.toSpringPageRequest(query)
+                    ).stream(),
+                    query -> (int) Math.min(totals.getTotal(), Integer.MAX_VALUE)
+            );
+            updateStats(totals);
 
         } catch (Exception e) {
-            System.err.println("❌ Erreur lors du chargement: " + e.getMessage());
-            e.printStackTrace();
             showErrorNotification("Erreur lors du chargement: " + e.getMessage());
         }
     }
 
-    private List<Reservation> loadAllReservationsWithFetch() {
-        try {
-            // ✅ UTILISER LA NOUVELLE MÉTHODE AVEC JOIN FETCH
-            List<Reservation> reservations = reservationRepository.findAllWithUserAndEvent();
-            return reservations;
-        } catch (Exception e) {
-            System.err.println("❌ Erreur dans loadAllReservationsWithFetch: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Impossible de charger les réservations", e);
-        }
-    }
-
-    private void updateStats(List<Reservation> reservations) {
+    private void updateStats(ReservationTotalsDTO totals) {
         statsContainer.removeAll();
 
-        long total = reservations.size();
-        long confirmees = reservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                .count();
-
-        int totalPlaces = reservations.stream()
-                .filter(r -> r.getStatut() != ReservationStatut.ANNULEE)
-                .mapToInt(Reservation::getNombrePlaces)
-                .sum();
-
-        double totalRevenue = reservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
-
         // ✅ Cartes avec icônes et style amélioré
-        statsContainer.add(createStatCardWithIcon("Total", String.valueOf(total), "#2196F3", "🎫"));
-        statsContainer.add(createStatCardWithIcon("Confirmées", String.valueOf(confirmees), "#4CAF50", "✅"));
-        statsContainer.add(createStatCardWithIcon("Places", String.valueOf(totalPlaces), "#FF9800", "👥"));
+        statsContainer.add(createStatCardWithIcon("Total", String.valueOf(totals.getTotal()), "#2196F3", "🎫"));
+        statsContainer.add(createStatCardWithIcon("Confirmées", String.valueOf(totals.getConfirmees()), "#4CAF50", "✅"));
+        statsContainer.add(createStatCardWithIcon("Places", String.valueOf(totals.getPlaces()), "#FF9800", "👥"));
         statsContainer.add(createStatCardWithIcon("Revenus",
-                String.format("%.2f DH", totalRevenue), "#9C27B0", "💰"));
+                String.format("%.2f DH", totals.getRevenu()), "#9C27B0", "💰"));
     }
 
     private Div createStatCardWithIcon(String title, String value, String color, String emoji) {
@@ -515,61 +483,41 @@ public class AllReservationsView extends VerticalLayout {
     }
 
     /**
-     * Export des réservations en CSV
+     * Export CSV / Excel des réservations correspondant aux filtres courants.
+     * Le fichier est écrit dans la réponse pendant le téléchargement, sans charger la liste en mémoire.
      */
-    private void exportToCSV() {
+    private void exportSheet(ExportFormat format) {
         try {
-            List<Reservation> reservations = grid.getGenericDataView()
-                    .getItems()
-                    .collect(Collectors.toList());
+            // Filtres figés au moment du clic
+            String search = currentSearch;
+            ReservationStatut statut = currentStatusFilter;
+            LocalDateTime debut = currentDateDebutFilter;
+            LocalDateTime fin = currentDateFinFilter;
 
-            if (reservations.isEmpty()) {
-                showErrorNotification("Aucune réservation à exporter");
-                return;
-            }
+            String filename = sheetExportService.generateFileName("reservations", null, format);
 
-            // Générer le CSV
-            StringBuilder csv = new StringBuilder();
-            csv.append("Code,Utilisateur,Email,Événement,Date Réservation,Places,Montant,Statut\n");
-
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-            for (Reservation r : reservations) {
-                try {
-                    csv.append(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%d,%.2f,\"%s\"\n",
-                            r.getCodeReservation(),
-                            r.getUtilisateur().getNomComplet(),
-                            r.getUtilisateur().getEmail(),
-                            r.getEvenement().getTitre(),
-                            r.getDateReservation().format(dateFormatter),
-                            r.getNombrePlaces(),
-                            r.getMontantTotal(),
-                            r.getStatut().getLabel()
-                    ));
-                } catch (Exception e) {
-                    System.err.println("Erreur lors de l'export d'une ligne: " + e.getMessage());
-                }
-            }
-
-            // Créer un nom de fichier avec timestamp
-            String filename = "reservations_" +
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
-
-            // Télécharger le fichier côté client
-            String csvContent = csv.toString();
-            String jsCode = String.format(
-                    "var blob = new Blob([atob('%s')], {type: 'text/csv;charset=utf-8;'});" +
-                            "var link = document.createElement('a');" +
-                            "link.href = URL.createObjectURL(blob);" +
-                            "link.download = '%s';" +
-                            "link.click();",
-                    java.util.Base64.getEncoder().encodeToString(csvContent.getBytes(StandardCharsets.UTF_8)),
-                    filename
+            StreamResource resource = new StreamResource(filename, (out, session) ->
+                    sheetExportService.exportReservations(search, statut, debut, fin, format, out)
             );
-
-            getUI().ifPresent(ui -> ui.getPage().executeJs(jsCode));
-
-            showSuccessNotification(reservations.size() + " réservations exportées avec succès");
+            resource.setContentType(format.getContentType());
+            resource.setCacheTime(0);
+
+            String linkId = "reservations-" + format.getExtension() + "-download-link";
+            Anchor downloadLink = new Anchor(resource, "");
+            downloadLink.getElement().setAttribute("download", true);
+            downloadLink.setId(linkId);
+            downloadLink.getStyle().set("display", "none");
+
+            getUI().ifPresent(ui -> {
+                ui.add(downloadLink);
+                ui.getPage().executeJs(
+                        "setTimeout(() => document.getElementById($0).click(), 100);" +
+                                "setTimeout(() => { const link = document.getElementById($0); if(link) link.remove(); }, 1000);",
+                        linkId
+                );
+            });
+
+            showSuccessNotification("Export " + format.name() + " lancé");
 
         } catch (Exception e) {
             showErrorNotification("Erreur lors de l'export: " + e.getMessage());
@@ -3,6 +3,7 @@ package org.example.reservation_event.ui.Admin;
 import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.repositories.EventRepository;
+import org.example.reservation_event.services.RevenueRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,6 +17,9 @@ public class EventDebugController {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
     /**
      * Check all events and their status
      */
@@ -128,4 +132,17 @@ public class EventDebugController {
                 "<p><a href='/api/admin/debug/events'>View Events</a></p>" +
                 "</body></html>";
     }
-}
\ No newline at end of file
+
+    /**
+     * Rebuild the revenue_monthly rollup from confirmed reservations (backfill / repair)
+     */
+    @GetMapping("/admin/debug/revenue/rebuild")
+    public String rebuildRevenueRollup() {
+        int buckets = revenueRollupService.rebuild();
+        return "<html><body>" +
+                "<h1>Revenue Rollup Rebuilt</h1>" +
+                "<p>" + buckets + " month/category row(s) recomputed from confirmed reservations.</p>" +
+                "<p><a href='/admin/dashboard'>Back to Dashboard</a></p>" +
+                "</body></html>";
+    }
+}
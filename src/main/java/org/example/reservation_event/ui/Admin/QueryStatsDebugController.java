@@ -0,0 +1,70 @@
+package org.example.reservation_event.ui.Admin;
+
+import org.example.reservation_event.monitoring.QueryStatsRegistry;
+import org.example.reservation_event.monitoring.RequestQueryStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+@RestController
+public class QueryStatsDebugController {
+
+    @Autowired
+    private QueryStatsRegistry queryStatsRegistry;
+
+    /**
+     * SQL statements per Vaadin view / URL: count, JDBC time and slowest statements
+     */
+    @GetMapping("/admin/debug/queries")
+    public String debugQueries() {
+        List<QueryStatsRegistry.RouteQueryStats> routes = queryStatsRegistry.snapshot();
+        StringBuilder html = new StringBuilder();
+
+        html.append("<html><head><title>Query Debug</title></head><body>");
+        html.append("<h1>SQL Statements per Route</h1>");
+        html.append("<p>Routes: ").append(routes.size()).append("</p>");
+
+        html.append("<table border='1' cellpadding='5'>");
+        html.append("<tr><th>Route</th><th>Requests</th><th>Statements</th><th>Avg / request</th>")
+                .append("<th>Max / request</th><th>JDBC time (ms)</th><th>Slowest statements</th></tr>");
+
+        for (QueryStatsRegistry.RouteQueryStats route : routes) {
+            html.append("<tr>");
+            html.append("<td><strong>").append(HtmlUtils.htmlEscape(route.getRoute())).append("</strong></td>");
+            html.append("<td>").append(route.getRequests()).append("</td>");
+            html.append("<td>").append(route.getStatements()).append("</td>");
+            html.append("<td>").append(String.format("%.1f", route.getAverageStatements())).append("</td>");
+            html.append("<td>").append(route.getMaxStatementsPerRequest()).append("</td>");
+            html.append("<td>").append(String.format("%.1f", route.getTotalMillis())).append("</td>");
+            html.append("<td><ol>");
+            for (RequestQueryStats.SlowStatement statement : route.getSlowest()) {
+                html.append("<li>").append(String.format("%.2f ms", statement.nanos() / 1_000_000.0))
+                        .append(" <code>").append(HtmlUtils.htmlEscape(String.valueOf(statement.sql())))
+                        .append("</code></li>");
+            }
+            html.append("</ol></td>");
+            html.append("</tr>");
+        }
+
+        html.append("</table>");
+        html.append("<br><a href='/admin/debug/queries/reset'>Reset</a>");
+        html.append("</body></html>");
+
+        return html.toString();
+    }
+
+    /**
+     * Clear collected statistics (e.g. before reproducing a slow page)
+     */
+    @GetMapping("/admin/debug/queries/reset")
+    public String resetQueries() {
+        queryStatsRegistry.reset();
+        return "<html><body>" +
+                "<h1>Query Statistics Reset</h1>" +
+                "<p><a href='/admin/debug/queries'>Back to Query Stats</a></p>" +
+                "</body></html>";
+    }
+}
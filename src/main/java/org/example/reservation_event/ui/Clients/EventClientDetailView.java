@@ -20,6 +20,7 @@ import org.example.reservation_event.classes.User;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.UserService;
 import org.example.reservation_event.ui.MainLayout;
+import org.example.reservation_event.images.ImageVariant;
 import org.example.reservation_event.utils.ImageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -155,7 +156,7 @@ public class EventClientDetailView extends VerticalLayout implements HasUrlParam
         if (currentEvent.getImageUrl() != null && !currentEvent.getImageUrl().isEmpty()) {
             try {
                 // Utiliser ImageUtils pour créer l'image
-                Image image = ImageUtils.createEventImage(currentEvent.getImageUrl(), "360px");
+                Image image = ImageUtils.createEventImage(currentEvent.getImageUrl(), ImageVariant.HERO, "360px");
                 image.setWidthFull();
                 image.setHeight("100%");
                 image.getStyle()
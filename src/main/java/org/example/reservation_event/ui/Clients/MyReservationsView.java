@@ -30,7 +30,6 @@ import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.User;
 import org.example.reservation_event.dtos.ReservationSummaryDTO;
 import org.example.reservation_event.ServicesImplimentation.PdfTicketService;
-import org.example.reservation_event.email.EmailService;
 import org.example.reservation_event.services.ReservationService;
 import org.example.reservation_event.services.ReviewService;
 import org.example.reservation_event.services.UserService;
@@ -62,19 +61,16 @@ public class MyReservationsView extends VerticalLayout {
     private Span totalReservationsSpan;
     private Span upcomingEventsSpan;
     private Span totalSpentSpan;
-    private final EmailService emailService;
     private final ReviewService reviewService;
 
     @Autowired
     public MyReservationsView(ReservationService reservationService,
                               UserService userService,
                               PdfTicketService pdfTicketService,
-                              EmailService emailService,
                               ReviewService reviewService) {
         this.reservationService = reservationService;
         this.userService = userService;
         this.pdfTicketService = pdfTicketService;
-        this.emailService = emailService;
         this.reviewService=reviewService;
 
         setSizeFull();
@@ -755,8 +751,7 @@ public class MyReservationsView extends VerticalLayout {
         confirmBtn.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_PRIMARY);
         confirmBtn.addClickListener(e -> {
             String reason = reasonField.getValue();
-            // ✅ Appel avec 2 paramètres maintenant
-            cancelReservation(reservation);
+            cancelReservation(reservation, reason);
             dialog.close();
         });
 
@@ -768,11 +763,8 @@ public class MyReservationsView extends VerticalLayout {
     }
 
 
-    private void cancelReservation(ReservationSummaryDTO reservationDTO) {
+    private void cancelReservation(ReservationSummaryDTO reservationDTO, String reason) {
         try {
-            // ✅ UTILISER getReservationByIdWithRelations COMME POUR LE PDF
-            Reservation reservation = reservationService.getReservationByIdWithRelations(reservationDTO.getId());
-
             if (!canBeCancelled(reservationDTO)) {
                 Notification.show("Cette réservation ne peut plus être annulée (moins de 48h avant l'événement)",
                                 3000, Notification.Position.MIDDLE)
@@ -780,34 +772,14 @@ public class MyReservationsView extends VerticalLayout {
                 return;
             }
 
-            // ✅ L'annulation nécessite juste l'ID
-            reservationService.cancelReservation(reservationDTO.getId());
+            // Annulation + email programmé dans la même transaction (envoyé en arrière-plan par l'outbox)
+            reservationService.cancelReservationAndNotify(reservationDTO.getId(), reason);
 
-            // ✅ Maintenant envoyer l'email (les relations sont chargées)
-            try {
-                boolean emailSent = emailService.sendReservationCancellation(reservation);
-                if (emailSent) {
-                    System.out.println("✅ Email d'annulation envoyé pour: " + reservation.getCodeReservation());
-                    Notification successNotif = Notification.show(
-                            "✅ Réservation annulée avec succès ! Un email de confirmation vous a été envoyé.",
-                            4000, Notification.Position.TOP_CENTER
-                    );
-                    successNotif.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-                } else {
-                    System.err.println("⚠️ Échec d'envoi d'email d'annulation");
-                    Notification warningNotif = Notification.show(
-                            "⚠️ Réservation annulée, mais l'email de confirmation n'a pas pu être envoyé.",
-                            4000, Notification.Position.TOP_CENTER
-                    );
-                    warningNotif.addThemeVariants(NotificationVariant.LUMO_CONTRAST);
-                }
-            } catch (Exception emailEx) {
-                System.err.println("❌ Erreur lors de l'envoi de l'email: " + emailEx.getMessage());
-                Notification.show(
-                        "✅ Réservation annulée (problème technique pour l'email).",
-                        3000, Notification.Position.MIDDLE
-                ).addThemeVariants(NotificationVariant.LUMO_PRIMARY);
-            }
+            Notification successNotif = Notification.show(
+                    "✅ Réservation annulée avec succès ! Un email de confirmation va vous être envoyé.",
+                    4000, Notification.Position.TOP_CENTER
+            );
+            successNotif.addThemeVariants(NotificationVariant.LUMO_SUCCESS);
 
             loadReservations();
 
@@ -21,11 +21,11 @@ import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.User;
 import org.example.reservation_event.dtos.EventDTO;
-import org.example.reservation_event.email.EmailService;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.ReservationService;
 import org.example.reservation_event.services.UserService;
 import org.example.reservation_event.ui.MainLayout;
+import org.example.reservation_event.images.ImageVariant;
 import org.example.reservation_event.utils.ImageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -46,7 +46,6 @@ public class ReservationFormView extends VerticalLayout implements BeforeEnterOb
     private final EventService eventService;
     private final ReservationService reservationService;
     private final UserService userService;
-    private final EmailService emailService;
 
 
     private Long eventId;
@@ -63,12 +62,10 @@ public class ReservationFormView extends VerticalLayout implements BeforeEnterOb
     @Autowired
     public ReservationFormView(EventService eventService,
                                ReservationService reservationService,
-                               UserService userService,
-                               EmailService emailService) {
+                               UserService userService) {
         this.eventService = eventService;
         this.reservationService = reservationService;
         this.userService = userService;
-        this.emailService = emailService;
 
         setSizeFull();
         setSpacing(true);
@@ -179,7 +176,7 @@ public class ReservationFormView extends VerticalLayout implements BeforeEnterOb
         boolean hasImage = false;
         if (eventDTO.getImageUrl() != null && !eventDTO.getImageUrl().isEmpty()) {
             try {
-                Image eventImage = ImageUtils.createEventImage(eventDTO.getImageUrl());
+                Image eventImage = ImageUtils.createEventImage(eventDTO.getImageUrl(), ImageVariant.DETAIL);
                 eventImage.setWidthFull();
                 eventImage.setHeight("100%");
                 eventImage.getStyle()
@@ -381,14 +378,7 @@ public class ReservationFormView extends VerticalLayout implements BeforeEnterOb
                     commentaireField.getValue()
             );
 
-            // AJOUT: Envoi de l'email de confirmation
-            try {
-                emailService.sendReservationConfirmation(reservation);
-                System.out.println("✅ Confirmation email sent for reservation: " + reservation.getCodeReservation());
-            } catch (Exception emailEx) {
-                System.err.println("⚠️ Could not send confirmation email: " + emailEx.getMessage());
-                // Ne pas bloquer la réservation si l'email échoue
-            }
+            // L'email de confirmation est programmé par createReservation (outbox) et envoyé en arrière-plan
 
             showSuccessDialog(reservation);
 
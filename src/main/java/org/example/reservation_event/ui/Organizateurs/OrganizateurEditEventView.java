@@ -19,7 +19,6 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.timepicker.TimePicker;
 import com.vaadin.flow.component.upload.Upload;
-import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
 import com.vaadin.flow.router.*;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
@@ -27,6 +26,8 @@ import jakarta.annotation.security.RolesAllowed;
 import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.images.ImageStore;
+import org.example.reservation_event.images.ImageUploadReceiver;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.UserService;
 import org.example.reservation_event.ui.MainLayout;
@@ -39,15 +40,16 @@ import java.io.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Base64;
 
 @Route(value = "organizer/event/edit", layout = MainLayout.class)
 @PageTitle("Modifier l'événement - Organisateur")
 
 public class OrganizateurEditEventView extends VerticalLayout implements HasUrlParameter<Long> {
 
+    private static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
     private final EventService eventService;
     private final UserService userService;
+    private final ImageStore imageStore;
 
     private User currentUser;
     private Event currentEvent;
@@ -72,15 +74,14 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
     private Div previewContainer;
     private Button removeImageButton;
 
-    // Upload data storage
-    private ByteArrayOutputStream uploadedFileData;
-    private String uploadedFileName;
-    private String uploadedFileType;
+    // Image reçue, écrite dans un fichier temporaire en attendant l'enregistrement
+    private ImageUploadReceiver imageReceiver;
 
     @Autowired
-    public OrganizateurEditEventView(EventService eventService, UserService userService) {
+    public OrganizateurEditEventView(EventService eventService, UserService userService, ImageStore imageStore) {
         this.eventService = eventService;
         this.userService = userService;
+        this.imageStore = imageStore;
 
         setSizeFull();
         setPadding(false);
@@ -88,7 +89,8 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
         getStyle()
                 .set("background", "var(--lumo-contrast-5pct)");
 
-        uploadedFileData = new ByteArrayOutputStream();
+        imageReceiver = new ImageUploadReceiver(imageStore, MAX_IMAGE_SIZE);
+        addDetachListener(e -> imageReceiver.discard());
     }
 
     @Override
@@ -388,11 +390,10 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
         currentImageContainer.add(imageWrapper, currentImageLabel);
 
         // Upload component
-        MemoryBuffer buffer = new MemoryBuffer();
-        Upload upload = new Upload(buffer);
+        Upload upload = new Upload(imageReceiver);
         upload.setWidthFull();
         upload.setAcceptedFileTypes("image/png", "image/jpeg", "image/jpg", "image/gif", "image/webp");
-        upload.setMaxFileSize(5 * 1024 * 1024);
+        upload.setMaxFileSize((int) MAX_IMAGE_SIZE);
         upload.setDropLabel(new Span("Glissez-déposez une image ici"));
 
         Button uploadButton = new Button("Parcourir les fichiers", new Icon(VaadinIcon.UPLOAD));
@@ -442,22 +443,21 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
         // Upload listeners
         upload.addSucceededListener(e -> {
             try {
-                uploadedFileName = e.getFileName();
-                uploadedFileType = e.getMIMEType();
-
-                InputStream fileData = buffer.getInputStream();
-                byte[] bytes = fileData.readAllBytes();
-                uploadedFileData.reset();
-                uploadedFileData.write(bytes);
-
-                String base64Image = Base64.getEncoder().encodeToString(bytes);
-                String dataUrl = "data:" + uploadedFileType + ";base64," + base64Image;
-
-                previewImage.setSrc(dataUrl);
-                previewImage.setAlt("Nouvelle image: " + uploadedFileName);
+                // Aperçu lu depuis le fichier temporaire
+                StreamResource resource = new StreamResource(imageReceiver.getFileName(), () -> {
+                    try {
+                        return imageReceiver.openPending();
+                    } catch (IOException ex) {
+                        return new ByteArrayInputStream(new byte[0]);
+                    }
+                });
+                resource.setContentType(imageReceiver.getMimeType());
+
+                previewImage.setSrc(resource);
+                previewImage.setAlt("Nouvelle image: " + imageReceiver.getFileName());
                 previewContainer.getStyle().set("display", "flex");
 
-                Notification.show("✓ Image téléchargée: " + uploadedFileName,
+                Notification.show("✓ Image téléchargée: " + imageReceiver.getFileName(),
                                 3000, Notification.Position.TOP_CENTER)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
 
@@ -468,6 +468,15 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
             }
         });
 
+        upload.addFailedListener(e -> {
+            imageReceiver.discard();
+            previewContainer.getStyle().set("display", "none");
+            String reason = e.getReason() != null ? e.getReason().getMessage() : null;
+            Notification.show("Erreur: " + (reason != null ? reason : "téléchargement interrompu"),
+                            5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+        });
+
         upload.addFileRejectedListener(e -> {
             Notification.show("Erreur: " + e.getErrorMessage(),
                             5000, Notification.Position.MIDDLE)
@@ -533,9 +542,7 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
         setPlaceholderImage("Image supprimée");
         removeImageButton.setVisible(false);
         previewContainer.getStyle().set("display", "none");
-        uploadedFileData.reset();
-        uploadedFileName = null;
-        uploadedFileType = null;
+        imageReceiver.discard();
 
         Notification.show("Image supprimée", 2000, Notification.Position.TOP_CENTER)
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
@@ -617,7 +624,7 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
         }
 
         try {
-            if (uploadedFileData.size() > 0 && uploadedFileName != null) {
+            if (imageReceiver.hasPendingFile()) {
                 String imageUrl = saveUploadedImage();
                 if (imageUrl != null) {
                     currentEvent.setImageUrl(imageUrl);
@@ -663,26 +670,8 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
 
     private String saveUploadedImage() {
         try {
-            String extension = getFileExtension(uploadedFileName);
-            String uniqueFileName = "event_" + currentEvent.getId() + "_" +
-                    System.currentTimeMillis() + extension;
-
-            // Get project directory
-            String projectDir = System.getProperty("user.dir");
-            String uploadDir = projectDir + "/src/main/java/org/example/reservation_event/uploads/";
-
-            File directory = new File(uploadDir);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-
-            File outputFile = new File(uploadDir + uniqueFileName);
-            try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-                fos.write(uploadedFileData.toByteArray());
-            }
-
-            // Return relative path or just filename
-            return uniqueFileName; // ImageUtils will construct the full path
+            // Fichier reçu déplacé dans le store (une fois par contenu), miniatures générées à l'enregistrement
+            return imageReceiver.importToStore();
 
         } catch (Exception e) {
             Notification.show("Erreur lors de la sauvegarde de l'image: " + e.getMessage(),
@@ -691,12 +680,6 @@ public class OrganizateurEditEventView extends VerticalLayout implements HasUrlP
             return null;
         }
     }
-    private String getFileExtension(String fileName) {
-        if (fileName == null || !fileName.contains(".")) {
-            return ".jpg";
-        }
-        return fileName.substring(fileName.lastIndexOf('.'));
-    }
 
     private User getCurrentUser() {
         try {
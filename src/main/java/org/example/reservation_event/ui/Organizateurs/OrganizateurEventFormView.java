@@ -18,7 +18,6 @@ import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.upload.Upload;
-import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.data.validator.DoubleRangeValidator;
@@ -33,6 +32,9 @@ import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.Enums.UserRole;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.images.ImageStore;
+import org.example.reservation_event.images.ImageUploadReceiver;
+import org.example.reservation_event.images.ImageVariant;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.UserService;
 import org.example.reservation_event.ui.MainLayout;
@@ -42,15 +44,15 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.*;
 import java.time.LocalDateTime;
-import java.util.Base64;
 
 @Route(value = "organizer/event", layout = MainLayout.class)
 @PageTitle("Gestion d'Événement")
 public class OrganizateurEventFormView extends VerticalLayout implements HasUrlParameter<String> {
 
-    private static final String UPLOAD_DIR = "src/main/java/org/example/reservation_event/uploads/";
+    private static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
     private final UserService userService;
     private final EventService eventService;
+    private final ImageStore imageStore;
     private User currentUser;
     private Event event;
     private boolean isEditMode = false;
@@ -72,16 +74,15 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
     private Div previewContainer;
     private Span currentImageLabel;
     private Button removeImageButton;
-    private ByteArrayOutputStream uploadedFileData;
-    private String[] uploadedFileName;
-    private String[] uploadedFileType;
+    private ImageUploadReceiver imageReceiver;
 
     private Binder<Event> binder;
     private VerticalLayout previewSection;
 
-    public OrganizateurEventFormView(UserService userService, EventService eventService) {
+    public OrganizateurEventFormView(UserService userService, EventService eventService, ImageStore imageStore) {
         this.userService = userService;
         this.eventService = eventService;
+        this.imageStore = imageStore;
 
         setSizeFull();
         setPadding(false);
@@ -404,11 +405,13 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
         currentImageContainer.add(imageWrapper, currentImageLabel);
 
         // File upload component
-        MemoryBuffer buffer = new MemoryBuffer();
-        Upload upload = new Upload(buffer);
+        // Écrit sur disque pendant le transfert (pas de copie de l'image en mémoire)
+        imageReceiver = new ImageUploadReceiver(imageStore, MAX_IMAGE_SIZE);
+        addDetachListener(e -> imageReceiver.discard());
+        Upload upload = new Upload(imageReceiver);
         upload.setWidthFull();
         upload.setAcceptedFileTypes("image/png", "image/jpeg", "image/jpg", "image/gif", "image/webp");
-        upload.setMaxFileSize(5 * 1024 * 1024); // 5MB
+        upload.setMaxFileSize((int) MAX_IMAGE_SIZE);
         upload.setDropLabel(new Span("Glissez-déposez une image ici"));
 
         Button uploadButton = new Button("Parcourir les fichiers", new Icon(VaadinIcon.UPLOAD));
@@ -455,35 +458,28 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
 
         previewContainer.add(previewImage, previewLabel);
 
-        uploadedFileData = new ByteArrayOutputStream();
-        uploadedFileName = new String[1];
-        uploadedFileType = new String[1];
-
         upload.addSucceededListener(e -> {
             try {
-                uploadedFileName[0] = e.getFileName();
-                uploadedFileType[0] = e.getMIMEType();
-
-                InputStream fileData = buffer.getInputStream();
-                byte[] bytes = fileData.readAllBytes();
-                uploadedFileData.reset();
-                uploadedFileData.write(bytes);
-
-                String base64Image = Base64.getEncoder().encodeToString(bytes);
-                String dataUrl = "data:" + uploadedFileType[0] + ";base64," + base64Image;
-
-                previewImage.setSrc(dataUrl);
-                previewImage.setAlt("Nouvelle image: " + uploadedFileName[0]);
+                previewImage.setSrc(createPendingImageResource());
+                previewImage.setAlt("Nouvelle image: " + imageReceiver.getFileName());
                 previewContainer.getStyle().set("display", "flex");
 
                 updatePreview();
-                showSuccessNotification("✅ Image téléchargée: " + uploadedFileName[0]);
+                showSuccessNotification("✅ Image téléchargée: " + imageReceiver.getFileName());
 
             } catch (Exception ex) {
                 showErrorNotification("Erreur lors du traitement de l'image");
             }
         });
 
+        upload.addFailedListener(e -> {
+            imageReceiver.discard();
+            previewContainer.getStyle().set("display", "none");
+            updatePreview();
+            String reason = e.getReason() != null ? e.getReason().getMessage() : null;
+            showErrorNotification("Erreur: " + (reason != null ? reason : "téléchargement interrompu"));
+        });
+
         upload.addFileRejectedListener(e -> {
             showErrorNotification("Erreur: " + e.getErrorMessage());
         });
@@ -495,9 +491,7 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
             event.setImageUrl(null);
             loadCurrentImage();
             previewContainer.getStyle().set("display", "none");
-            uploadedFileData.reset();
-            uploadedFileName[0] = null;
-            uploadedFileType[0] = null;
+            imageReceiver.discard();
             removeImageButton.setVisible(false);
             showSuccessNotification("Image supprimée");
         });
@@ -594,11 +588,9 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
                 .set("border", "2px dashed var(--lumo-contrast-30pct)");
 
         // Image preview
-        if (uploadedFileData != null && uploadedFileData.size() > 0 && uploadedFileName[0] != null) {
+        if (imageReceiver != null && imageReceiver.hasPendingFile()) {
             try {
-                String base64Image = Base64.getEncoder().encodeToString(uploadedFileData.toByteArray());
-                String dataUrl = "data:" + uploadedFileType[0] + ";base64," + base64Image;
-                Image previewImg = new Image(dataUrl, "New Event image");
+                Image previewImg = new Image(createPendingImageResource(), "New Event image");
                 previewImg.setWidth("100%");
                 previewImg.setMaxHeight("300px");
                 previewImg.getStyle()
@@ -609,37 +601,14 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
                 addImagePlaceholder(preview);
             }
         } else if (event != null && event.getImageUrl() != null && !event.getImageUrl().isEmpty()) {
-            try {
-                String imagePath = event.getImageUrl();
-                String fileName = imagePath.contains("/")
-                        ? imagePath.substring(imagePath.lastIndexOf("/") + 1)
-                        : imagePath;
-                File imageFile = new File(UPLOAD_DIR + fileName);
-
-                if (imageFile.exists() && imageFile.canRead()) {
-                    StreamResource streamResource = new StreamResource(
-                            fileName,
-                            () -> {
-                                try {
-                                    return new FileInputStream(imageFile);
-                                } catch (FileNotFoundException e) {
-                                    return new ByteArrayInputStream(new byte[0]);
-                                }
-                            }
-                    );
-                    Image previewImg = new Image(streamResource, "Event image");
-                    previewImg.setWidth("100%");
-                    previewImg.setMaxHeight("300px");
-                    previewImg.getStyle()
-                            .set("object-fit", "cover")
-                            .set("border-radius", "var(--lumo-border-radius-m)");
-                    preview.add(previewImg);
-                } else {
-                    addImagePlaceholder(preview);
-                }
-            } catch (Exception e) {
-                addImagePlaceholder(preview);
-            }
+            Image previewImg = ImageUtils.createEventImage(event.getImageUrl(), ImageVariant.DETAIL);
+            previewImg.setWidth("100%");
+            previewImg.setHeight(null);
+            previewImg.setMaxHeight("300px");
+            previewImg.getStyle()
+                    .set("object-fit", "cover")
+                    .set("border-radius", "var(--lumo-border-radius-m)");
+            preview.add(previewImg);
         } else {
             addImagePlaceholder(preview);
         }
@@ -762,10 +731,9 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
                 }
             }
 
-            if (uploadedFileData != null && uploadedFileData.size() > 0 && uploadedFileName[0] != null) {
+            if (imageReceiver != null && imageReceiver.hasPendingFile()) {
                 try {
-                    String imageUrl = saveUploadedImage(event, uploadedFileData.toByteArray(),
-                            uploadedFileName[0], uploadedFileType[0]);
+                    String imageUrl = saveUploadedImage();
                     if (imageUrl != null && !imageUrl.isEmpty()) {
                         event.setImageUrl(imageUrl);
                     }
@@ -801,37 +769,30 @@ public class OrganizateurEventFormView extends VerticalLayout implements HasUrlP
         }
     }
 
-    private String saveUploadedImage(Event event, byte[] imageData, String fileName, String fileType) {
+    /**
+     * Déplace l'image reçue dans le store (une fois par contenu, miniatures générées) et retourne sa clé
+     */
+    private String saveUploadedImage() {
         try {
-            String extension = getFileExtension(fileName);
-            String uniqueFileName = "event_" +
-                    (event.getId() != null ? event.getId() : System.currentTimeMillis()) +
-                    "_" + System.currentTimeMillis() + extension;
-
-            // Get project directory to make relative path absolute
-            String projectDir = System.getProperty("user.dir");
-            String absoluteUploadDir = projectDir + "/" + UPLOAD_DIR;
-
-            File directory = new File(absoluteUploadDir);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-
-            File outputFile = new File(absoluteUploadDir + uniqueFileName);
-            try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-                fos.write(imageData);
-            }
-
-            // Return just the filename (ImageUtils will handle the path)
-            return uniqueFileName;
-
-        } catch (Exception e) {
-            throw new RuntimeException("Image saving failed", e);
+            return imageReceiver.importToStore();
+        } catch (IOException e) {
+            throw new RuntimeException("Image saving failed: " + e.getMessage(), e);
         }
     }
-    private String getFileExtension(String fileName) {
-        int dotIndex = fileName.lastIndexOf('.');
-        return (dotIndex == -1) ? "" : fileName.substring(dotIndex);
+
+    /**
+     * Aperçu de l'image reçue, lu depuis le fichier temporaire
+     */
+    private StreamResource createPendingImageResource() {
+        StreamResource resource = new StreamResource(imageReceiver.getFileName(), () -> {
+            try {
+                return imageReceiver.openPending();
+            } catch (IOException e) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+        });
+        resource.setContentType(imageReceiver.getMimeType());
+        return resource;
     }
 
     private boolean validateEventForPublishing() {
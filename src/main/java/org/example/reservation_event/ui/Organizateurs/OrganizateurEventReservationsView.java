@@ -23,25 +23,28 @@ import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.*;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import jakarta.annotation.security.RolesAllowed;
 import org.example.reservation_event.Enums.ReservationStatut;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.Reservation;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.ReservationTotalsDTO;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.ReservationService;
 import org.example.reservation_event.services.UserService;
 import org.example.reservation_event.ui.MainLayout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.example.reservation_event.ServicesImplimentation.PdfReservationExportService;
+import org.example.reservation_event.ServicesImplimentation.BulkTicketService;
+import org.example.reservation_event.ServicesImplimentation.ReservationSheetExportService;
+import org.example.reservation_event.Enums.ExportFormat;
 
 import javax.swing.text.Document;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Route(value = "organizer/event-reservations", layout = MainLayout.class)
 @PageTitle("Réservations - Organisateur")
@@ -53,12 +56,13 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
 
     private User currentUser;
     private Event currentEvent;
-    private List<Reservation> allReservations;
 
     private Grid<Reservation> reservationsGrid;
     private ComboBox<ReservationStatut> statusFilter;
     private TextField searchField;
     private final PdfReservationExportService pdfExportService;
+    private final BulkTicketService bulkTicketService;
+    private final ReservationSheetExportService sheetExportService;
 
     private Span totalReservationsValue;
     private Span totalPlacesValue;
@@ -69,11 +73,15 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
     public OrganizateurEventReservationsView(EventService eventService,
                                              ReservationService reservationService,
                                              UserService userService,
-                                             PdfReservationExportService pdfExportService) {  // ✅ AJOUTÉ
+                                             PdfReservationExportService pdfExportService,  // ✅ AJOUTÉ
+                                             BulkTicketService bulkTicketService,
+                                             ReservationSheetExportService sheetExportService) {
         this.eventService = eventService;
         this.reservationService = reservationService;
         this.userService = userService;
         this.pdfExportService = pdfExportService;  // ✅ AJOUTÉ
+        this.bulkTicketService = bulkTicketService;
+        this.sheetExportService = sheetExportService;
 
         setSizeFull();
         setPadding(true);
@@ -304,7 +312,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
         searchField.setClearButtonVisible(true);
         searchField.setWidth("300px");
         searchField.setValueChangeMode(ValueChangeMode.LAZY);
-        searchField.addValueChangeListener(e -> applyFilters());
+        searchField.addValueChangeListener(e -> refreshGrid());
 
         statusFilter = new ComboBox<>("Statut");
         statusFilter.setItems(ReservationStatut.values());
@@ -312,25 +320,38 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
         statusFilter.setPlaceholder("Tous");
         statusFilter.setClearButtonVisible(true);
         statusFilter.setWidth("200px");
-        statusFilter.addValueChangeListener(e -> applyFilters());
+        statusFilter.addValueChangeListener(e -> refreshGrid());
 
         Button exportCsvButton = new Button("Export CSV", new Icon(VaadinIcon.DOWNLOAD));
         exportCsvButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
-        exportCsvButton.addClickListener(e -> exportToCSV());
+        exportCsvButton.addClickListener(e -> exportSheet(ExportFormat.CSV));
+
+        Button exportXlsxButton = new Button("Export Excel", new Icon(VaadinIcon.FILE_TABLE));
+        exportXlsxButton.addThemeVariants(ButtonVariant.LUMO_SUCCESS);
+        exportXlsxButton.addClickListener(e -> exportSheet(ExportFormat.XLSX));
 
         Button exportPdfButton = new Button("Export PDF", new Icon(VaadinIcon.FILE_TEXT));
         exportPdfButton.addThemeVariants(ButtonVariant.LUMO_ERROR);
         exportPdfButton.addClickListener(e -> exportToPDF());
 
+        Button ticketsPdfButton = new Button("Billets PDF", new Icon(VaadinIcon.TICKET));
+        ticketsPdfButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+        ticketsPdfButton.addClickListener(e -> downloadTickets(false));
+
+        Button ticketsZipButton = new Button("Billets ZIP", new Icon(VaadinIcon.FILE_ZIP));
+        ticketsZipButton.addThemeVariants(ButtonVariant.LUMO_CONTRAST);
+        ticketsZipButton.addClickListener(e -> downloadTickets(true));
+
         Button resetButton = new Button("Réinitialiser", new Icon(VaadinIcon.REFRESH));
         resetButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
         resetButton.addClickListener(e -> {
             searchField.clear();
             statusFilter.clear();
-            applyFilters();
+            refreshGrid();
         });
 
-        filtersRow.add(searchField, statusFilter, exportCsvButton, exportPdfButton, resetButton);
+        filtersRow.add(searchField, statusFilter, exportCsvButton, exportXlsxButton, exportPdfButton,
+                ticketsPdfButton, ticketsZipButton, resetButton);
         section.add(filtersRow);
 
 
@@ -364,6 +385,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
                     return code;
                 }))
                 .setHeader("Code")
+                .setSortProperty("codeReservation")
                 .setWidth("140px")
                 .setFlexGrow(0);
 
@@ -372,6 +394,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
                     return user != null ? user.getPrenom() + " " + user.getNom() : "N/A";
                 })
                 .setHeader("Client")
+                .setSortProperty("utilisateur.nom")
                 .setAutoWidth(true)
                 .setFlexGrow(1);
 
@@ -380,6 +403,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
                     return user != null ? user.getEmail() : "N/A";
                 })
                 .setHeader("Email")
+                .setSortProperty("utilisateur.email")
                 .setAutoWidth(true)
                 .setFlexGrow(1);
 
@@ -391,6 +415,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
                     return places;
                 }))
                 .setHeader("Places")
+                .setSortProperty("nombrePlaces")
                 .setWidth("80px")
                 .setFlexGrow(0);
 
@@ -402,11 +427,13 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
                     return amount;
                 }))
                 .setHeader("Montant")
+                .setSortProperty("montantTotal")
                 .setWidth("120px")
                 .setFlexGrow(0);
 
         reservationsGrid.addColumn(reservation -> formatDateTime(reservation.getDateReservation()))
                 .setHeader("Date")
+                .setSortProperty("dateReservation")
                 .setWidth("180px")
                 .setFlexGrow(0);
 
@@ -422,6 +449,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
                     return badge;
                 }))
                 .setHeader("Statut")
+                .setSortProperty("statut")
                 .setWidth("120px")
                 .setFlexGrow(0);
 
@@ -462,8 +490,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
 
     private void loadReservations() {
         try {
-            allReservations = reservationService.getReservationsByEvent(currentEvent);
-            applyFilters();
+            refreshGrid();
             updateStatistics();
         } catch (Exception e) {
             Notification.show("Erreur: " + e.getMessage(), 5000, Notification.Position.MIDDLE)
@@ -471,152 +498,86 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
         }
     }
 
-    private void applyFilters() {
-        if (allReservations == null) return;
-
-        List<Reservation> filtered = allReservations;
-
+    // Grille paresseuse : filtres et tri poussés en base, une page à la fois
+    private void refreshGrid() {
         ReservationStatut selectedStatus = statusFilter.getValue();
-        if (selectedStatus != null) {
-            filtered = filtered.stream()
-                    .filter(r -> r.getStatut() == selectedStatus)
-                    .collect(Collectors.toList());
-        }
-
         String searchText = searchField.getValue();
-        if (searchText != null && !searchText.trim().isEmpty()) {
-            String search = searchText.toLowerCase().trim();
-            filtered = filtered.stream()
-                    .filter(r -> {
-                        User user = r.getUtilisateur();
-                        return r.getCodeReservation().toLowerCase().contains(search) ||
-                                (user != null && (
-                                        user.getNom().toLowerCase().contains(search) ||
-                                                user.getPrenom().toLowerCase().contains(search) ||
-                                                user.getEmail().toLowerCase().contains(search)
-                                ));
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        reservationsGrid.setItems(filtered);
+        long filteredCount = reservationService
+                .getEventReservationTotals(currentEvent.getId(), searchText, selectedStatus)
+                .getTotal();
+
+        reservationsGrid.setItems(
+                query -> reservationService.searchEventReservations(
+                        currentEvent.getId(),
+                        searchText,
+                        selectedStatus,
+                        VaadinSpringDataHelpers.toSpringPageRequest(query)
+                ).stream(),
+                query -> (int) Math.min(filteredCount, Integer.MAX_VALUE)
+        );
     }
 
+    // Statistiques de l'événement entier (indépendantes des filtres), en une requête d'agrégation
     private void updateStatistics() {
-        if (allReservations == null) return;
-
-        int totalReservations = allReservations.size();
-
-        int totalPlaces = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE ||
-                        r.getStatut() == ReservationStatut.EN_ATTENTE)
-                .mapToInt(Reservation::getNombrePlaces)
-                .sum();
+        ReservationTotalsDTO totals = reservationService.getEventReservationTotals(currentEvent.getId(), null, null);
 
-        double totalRevenue = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                .mapToDouble(Reservation::getMontantTotal)
-                .sum();
-
-        long confirmedCount = allReservations.stream()
-                .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                .count();
-
-        totalReservationsValue.setText(String.valueOf(totalReservations));
-        totalPlacesValue.setText(String.valueOf(totalPlaces));
-        totalRevenueValue.setText(String.format("%.2f DH", totalRevenue));
-        confirmedReservationsValue.setText(String.valueOf(confirmedCount));
+        totalReservationsValue.setText(String.valueOf(totals.getTotal()));
+        totalPlacesValue.setText(String.valueOf(totals.getPlaces()));
+        totalRevenueValue.setText(String.format("%.2f DH", totals.getRevenu()));
+        confirmedReservationsValue.setText(String.valueOf(totals.getConfirmees()));
     }
 
-    private void exportToCSV() {
-        try {
-            StringBuilder csv = new StringBuilder();
-            csv.append("\uFEFF"); // UTF-8 BOM
-            csv.append("Code,Client,Email,Places,Montant,Date,Statut\n");
-
-            List<Reservation> reservations = getFilteredReservations();
-
-            for (Reservation r : reservations) {
-                User user = r.getUtilisateur();
-                String clientName = user != null ? user.getPrenom() + " " + user.getNom() : "N/A";
-                String email = user != null ? user.getEmail() : "N/A";
-
-                csv.append(String.format("\"%s\",\"%s\",\"%s\",%d,%.2f,\"%s\",\"%s\"\n",
-                        r.getCodeReservation(),
-                        clientName,
-                        email,
-                        r.getNombrePlaces(),
-                        r.getMontantTotal(),
-                        formatDateTime(r.getDateReservation()),
-                        r.getStatut().name()
-                ));
-            }
+    /**
+     * Export CSV / Excel des réservations filtrées, écrit dans la réponse pendant le téléchargement
+     */
+    private void exportSheet(ExportFormat format) {
+        // Filtres figés au moment du clic
+        Long eventId = currentEvent.getId();
+        String search = searchField.getValue();
+        ReservationStatut statut = statusFilter.getValue();
 
-            String fileName = "reservations_" + currentEvent.getTitre().replaceAll("[^a-zA-Z0-9]", "_") +
-                    "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
+        String fileName = sheetExportService.generateFileName("reservations", currentEvent, format);
 
-            StreamResource resource = new StreamResource(fileName, () ->
-                    new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8))
+        StreamResource resource = new StreamResource(fileName, (out, session) ->
+                sheetExportService.exportEventReservations(eventId, search, statut, format, out)
+        );
+        resource.setContentType(format.getContentType());
+        resource.setCacheTime(0);
+
+        String linkId = format.getExtension() + "-download-link";
+        Anchor downloadLink = new Anchor(resource, "");
+        downloadLink.getElement().setAttribute("download", true);
+        downloadLink.setId(linkId);
+        downloadLink.getStyle().set("display", "none");
+
+        getUI().ifPresent(ui -> {
+            ui.add(downloadLink);
+            ui.getPage().executeJs(
+                    "setTimeout(() => document.getElementById($0).click(), 100);" +
+                            "setTimeout(() => { const link = document.getElementById($0); if(link) link.remove(); }, 1000);",
+                    linkId
             );
-            resource.setContentType("text/csv");
-
-            Anchor downloadLink = new Anchor(resource, "");
-            downloadLink.getElement().setAttribute("download", true);
-            downloadLink.setId("csv-download-link");
-            downloadLink.getStyle().set("display", "none");
-
-            getUI().ifPresent(ui -> {
-                ui.add(downloadLink);
-                ui.getPage().executeJs(
-                        "setTimeout(() => document.getElementById('csv-download-link').click(), 100);" +
-                                "setTimeout(() => { const link = document.getElementById('csv-download-link'); if(link) link.remove(); }, 1000);"
-                );
-            });
-
-            Notification.show("Export CSV réussi : " + reservations.size() + " réservations",
-                            3000, Notification.Position.TOP_CENTER)
-                    .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+        });
 
-        } catch (Exception e) {
-            Notification.show("Erreur lors de l'export CSV: " + e.getMessage(),
-                            5000, Notification.Position.MIDDLE)
-                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
-        }
+        Notification.show("Export " + format.name() + " lancé", 3000, Notification.Position.TOP_CENTER)
+                .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
     }
 
     private void exportToPDF() {
         try {
-            // Récupérer les réservations filtrées
-            List<Reservation> reservations = getFilteredReservations();
-
-            // Calculer les statistiques
-            int totalPlaces = reservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE ||
-                            r.getStatut() == ReservationStatut.EN_ATTENTE)
-                    .mapToInt(Reservation::getNombrePlaces)
-                    .sum();
-
-            double totalRevenue = reservations.stream()
-                    .filter(r -> r.getStatut() == ReservationStatut.CONFIRMEE)
-                    .mapToDouble(Reservation::getMontantTotal)
-                    .sum();
-
-            // ✅ GÉNÉRER LE PDF AVEC LE SERVICE
-            byte[] pdfBytes = pdfExportService.generateReservationsPdf(
-                    currentEvent,
-                    reservations,
-                    totalPlaces,
-                    totalRevenue
-            );
+            // Filtres figés au moment du clic
+            String search = searchField.getValue();
+            ReservationStatut statut = statusFilter.getValue();
 
             // ✅ GÉNÉRER LE NOM DE FICHIER
             String fileName = pdfExportService.generateFileName(currentEvent);
 
-            // Créer la ressource de téléchargement
-            StreamResource resource = new StreamResource(fileName, () ->
-                    new ByteArrayInputStream(pdfBytes)
+            // Le PDF est écrit dans la réponse pendant le téléchargement, par tranches de réservations
+            StreamResource resource = new StreamResource(fileName, (out, session) ->
+                    pdfExportService.writeReservationsPdf(currentEvent, search, statut, out)
             );
             resource.setContentType("application/pdf");
+            resource.setCacheTime(0);
 
             // Créer le lien de téléchargement
             Anchor downloadLink = new Anchor(resource, "");
@@ -634,7 +595,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
             });
 
             // Notification de succès
-            Notification.show("✅ Export PDF réussi : " + reservations.size() + " réservations",
+            Notification.show("✅ Export PDF lancé",
                             3000, Notification.Position.TOP_CENTER)
                     .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
 
@@ -646,34 +607,39 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
         }
     }
 
-    private List<Reservation> getFilteredReservations() {
-        List<Reservation> filtered = allReservations;
-
-        ReservationStatut selectedStatus = statusFilter.getValue();
-        if (selectedStatus != null) {
-            filtered = filtered.stream()
-                    .filter(r -> r.getStatut() == selectedStatus)
-                    .collect(Collectors.toList());
-        }
-
-        String searchText = searchField.getValue();
-        // Suite de getFilteredReservations()
-        if (searchText != null && !searchText.trim().isEmpty()) {
-            String search = searchText.toLowerCase().trim();
-            filtered = filtered.stream()
-                    .filter(r -> {
-                        User user = r.getUtilisateur();
-                        return r.getCodeReservation().toLowerCase().contains(search) ||
-                                (user != null && (
-                                        user.getNom().toLowerCase().contains(search) ||
-                                                user.getPrenom().toLowerCase().contains(search) ||
-                                                user.getEmail().toLowerCase().contains(search)
-                                ));
-                    })
-                    .collect(Collectors.toList());
-        }
+    /**
+     * Billets de toutes les réservations actives de l'événement, en un PDF multi-pages ou un ZIP.
+     * Le fichier est généré pendant le téléchargement, directement dans la réponse HTTP.
+     */
+    private void downloadTickets(boolean zip) {
+        Long eventId = currentEvent.getId();
+        String fileName = bulkTicketService.generateFileName(currentEvent, zip ? "zip" : "pdf");
+
+        StreamResource resource = new StreamResource(fileName, (out, session) -> {
+            if (zip) {
+                bulkTicketService.writeTicketsZip(eventId, out);
+            } else {
+                bulkTicketService.writeTicketsPdf(eventId, out);
+            }
+        });
+        resource.setContentType(zip ? "application/zip" : "application/pdf");
+        resource.setCacheTime(0);
+
+        Anchor downloadLink = new Anchor(resource, "");
+        downloadLink.getElement().setAttribute("download", true);
+        downloadLink.setId("tickets-download-link");
+        downloadLink.getStyle().set("display", "none");
+
+        getUI().ifPresent(ui -> {
+            ui.add(downloadLink);
+            ui.getPage().executeJs(
+                    "setTimeout(() => document.getElementById('tickets-download-link').click(), 100);" +
+                            "setTimeout(() => { const link = document.getElementById('tickets-download-link'); if(link) link.remove(); }, 1000);"
+            );
+        });
 
-        return filtered;
+        Notification.show("Génération des billets en cours…", 3000, Notification.Position.TOP_CENTER)
+                .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
     }
 
     private void showReservationDetails(Reservation reservation) {
@@ -734,8 +700,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
 
         dialog.addConfirmListener(e -> {
             try {
-                reservation.setStatut(ReservationStatut.CONFIRMEE);
-                reservationService.saveReservation(reservation);
+                reservationService.confirmReservation(reservation);
                 Notification.show("Réservation confirmée", 3000, Notification.Position.TOP_CENTER)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
                 loadReservations();
@@ -758,8 +723,7 @@ public class OrganizateurEventReservationsView extends VerticalLayout implements
 
         dialog.addConfirmListener(e -> {
             try {
-                reservation.setStatut(ReservationStatut.ANNULEE);
-                reservationService.saveReservation(reservation);
+                reservationService.cancelReservation(reservation.getId());
                 Notification.show("Réservation annulée", 3000, Notification.Position.TOP_CENTER)
                         .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
                 loadReservations();
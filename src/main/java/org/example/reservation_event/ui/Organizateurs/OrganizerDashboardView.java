@@ -16,6 +16,7 @@ import org.example.reservation_event.Enums.EventStatut;
 import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.classes.Review;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.OrganizerStatsDTO;
 import org.example.reservation_event.repositories.ReviewRepository;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.ReservationService;
@@ -470,18 +471,18 @@ public class OrganizerDashboardView extends VerticalLayout {
                 .set("margin", "0 0 15px 0")
                 .set("color", "var(--lumo-primary-text-color)");
 
-        Map<String, Object> stats = eventService.getOrganizerStats(currentUser);
+        OrganizerStatsDTO stats = eventService.getOrganizerStats(currentUser);
 
         HorizontalLayout statsGrid = new HorizontalLayout();
         statsGrid.setWidthFull();
         statsGrid.setSpacing(true);
         statsGrid.getStyle().set("flex-wrap", "wrap");
 
-        int totalEvents = ((Number) stats.getOrDefault("totalEvents", 0)).intValue();
-        int publishedEvents = ((Number) stats.getOrDefault("publishedEvents", 0)).intValue();
-        int draftEvents = ((Number) stats.getOrDefault("draftEvents", 0)).intValue();
-        int totalReservations = ((Number) stats.getOrDefault("totalReservations", 0)).intValue();
-        double totalRevenue = ((Number) stats.getOrDefault("totalRevenue", 0.0)).doubleValue();
+        long totalEvents = stats.getTotalEvents();
+        long publishedEvents = stats.getPublishedEvents();
+        long draftEvents = stats.getDraftEvents();
+        long totalReservations = stats.getTotalReservations();
+        double totalRevenue = stats.getTotalRevenue();
 
         statsGrid.add(
                 createStatCard("Total Événements", String.valueOf(totalEvents),
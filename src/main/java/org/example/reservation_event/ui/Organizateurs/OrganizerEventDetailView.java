@@ -22,6 +22,7 @@ import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.ReservationService;
 import org.example.reservation_event.services.UserService;
 import org.example.reservation_event.ui.MainLayout;
+import org.example.reservation_event.images.ImageVariant;
 import org.example.reservation_event.utils.ImageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -223,7 +224,7 @@ public class OrganizerEventDetailView extends VerticalLayout implements BeforeEn
         if (event.getImageUrl() != null && !event.getImageUrl().isEmpty()) {
             try {
                 // Utiliser ImageUtils pour créer l'image
-                Image image = ImageUtils.createEventImage(event.getImageUrl());
+                Image image = ImageUtils.createEventImage(event.getImageUrl(), ImageVariant.DETAIL);
                 image.setWidthFull();
                 image.setHeight("100%");
                 image.getStyle()
@@ -24,6 +24,7 @@ import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.VaadinSession;
 import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.OrganizerStatsDTO;
 import org.example.reservation_event.email.EmailService;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.services.UserService;
@@ -32,7 +33,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
 import java.util.Random;
 
 @Route(value = "organizer/profile", layout = MainLayout.class)
@@ -232,12 +232,12 @@ public class OrganizerProfilView extends VerticalLayout {
                 .set("color", "var(--lumo-primary-text-color)");
 
         // Get statistics
-        Map<String, Object> stats = eventService.getOrganizerStats(currentUser);
+        OrganizerStatsDTO stats = eventService.getOrganizerStats(currentUser);
 
-        int totalEvents = ((Number) stats.getOrDefault("totalEvents", 0)).intValue();
-        int totalReservations = ((Number) stats.getOrDefault("totalReservations", 0)).intValue();
-        double totalRevenue = ((Number) stats.getOrDefault("totalRevenue", 0.0)).doubleValue();
-        int publishedEvents = ((Number) stats.getOrDefault("publishedEvents", 0)).intValue();
+        long totalEvents = stats.getTotalEvents();
+        long totalReservations = stats.getTotalReservations();
+        double totalRevenue = stats.getTotalRevenue();
+        long publishedEvents = stats.getPublishedEvents();
 
         // Statistics grid
         HorizontalLayout statsGrid = new HorizontalLayout();
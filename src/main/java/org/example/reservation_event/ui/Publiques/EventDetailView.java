@@ -21,6 +21,7 @@ import org.example.reservation_event.classes.Event;
 import org.example.reservation_event.Enums.EventCategorie;
 import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.ui.MainLayout;
+import org.example.reservation_event.images.ImageVariant;
 import org.example.reservation_event.utils.ImageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -116,7 +117,7 @@ public class EventDetailView extends VerticalLayout implements HasUrlParameter<L
 
         // Utiliser ImageUtils pour créer l'image
         if (event.getImageUrl() != null && !event.getImageUrl().isEmpty()) {
-            Image eventImage = ImageUtils.createEventImage(event.getImageUrl(), "400px");
+            Image eventImage = ImageUtils.createEventImage(event.getImageUrl(), ImageVariant.HERO, "400px");
             eventImage.setWidth("100%");
             eventImage.setHeight("100%");
             eventImage.getStyle()
@@ -363,7 +364,7 @@ public class EventDetailView extends VerticalLayout implements HasUrlParameter<L
         col2.setWidth("50%");
 
         col2.add(
-                createDetailCard("Revenu total", String.format("%.2f DH", event.getRevenuTotal())),
+                createDetailCard("Revenu total", String.format("%.2f DH", eventService.getRevenuTotal(event))),
                 createDetailCard("Durée de l'événement", calculateDuration())
         );
 
@@ -21,18 +21,23 @@ import org.example.reservation_event.services.EventService;
 import org.example.reservation_event.ui.MainLayout;
 import org.example.reservation_event.utils.ImageUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 
 @Route(value = "", layout = MainLayout.class)
 @AnonymousAllowed
 @PageTitle("Accueil - EventBooking")
 public class HomeView extends VerticalLayout {
 
+    private static final int SEARCH_PAGE_SIZE = 12;
+
     private final EventService eventService;
 
     private TextField searchField;
@@ -42,6 +47,13 @@ public class HomeView extends VerticalLayout {
     private Button searchButton;
     private VerticalLayout eventsContainer;
 
+    // Recherche en cours : page suivante chargée par "Afficher plus"
+    private IntFunction<Page<Event>> searchQuery;
+    private int searchPage;
+    private int searchDisplayed;
+    private HorizontalLayout searchRow;
+    private Button loadMoreButton;
+
     @Autowired
     public HomeView(EventService eventService) {
         this.eventService = eventService;
@@ -425,19 +437,17 @@ public class HomeView extends VerticalLayout {
             endDateTime = date.atTime(23, 59, 59);
         }
 
-        try {
-            List<Event> results = eventService.searchEvents(
-                    keyword, ville, startDateTime, endDateTime,
-                    null, null, EventStatut.PUBLIE
-            );
-
-            if (categorie != null) {
-                results = results.stream()
-                        .filter(e -> e.getCategorie() == categorie)
-                        .collect(Collectors.toList());
-            }
+        LocalDateTime start = startDateTime;
+        LocalDateTime end = endDateTime;
+        // Tri stable (dateDebut puis id) : les pages suivantes ne répètent ni ne sautent d'événement
+        searchQuery = page -> eventService.searchEvents(
+                keyword, ville, start, end,
+                null, null, EventStatut.PUBLIE, categorie,
+                PageRequest.of(page, SEARCH_PAGE_SIZE, Sort.by("dateDebut", "id"))
+        );
 
-            displaySearchResults(results);
+        try {
+            displaySearchResults(searchQuery.apply(0));
 
         } catch (Exception e) {
             eventsContainer.removeAll();
@@ -447,7 +457,7 @@ public class HomeView extends VerticalLayout {
         }
     }
 
-    private void displaySearchResults(List<Event> results) {
+    private void displaySearchResults(Page<Event> results) {
         eventsContainer.removeAll();
 
         if (results.isEmpty()) {
@@ -474,7 +484,7 @@ public class HomeView extends VerticalLayout {
             return;
         }
 
-        Paragraph resultCount = new Paragraph(results.size() + " événement(s) trouvé(s)");
+        Paragraph resultCount = new Paragraph(results.getTotalElements() + " événement(s) trouvé(s)");
         resultCount.getStyle()
                 .set("text-align", "center")
                 .set("color", "var(--lumo-primary-color)")
@@ -483,20 +493,52 @@ public class HomeView extends VerticalLayout {
                 .set("margin", "0 0 20px 0");
         eventsContainer.add(resultCount);
 
-        HorizontalLayout row = null;
-        int count = 0;
+        searchPage = 0;
+        searchDisplayed = 0;
+        searchRow = null;
+        loadMoreButton = new Button("Afficher plus", VaadinIcon.ANGLE_DOWN.create());
+        loadMoreButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        loadMoreButton.getStyle().set("margin", "20px auto 0 auto");
+        loadMoreButton.addClickListener(e -> loadMoreSearchResults());
+
+        appendSearchResults(results);
+    }
 
-        for (Event event : results) {
-            if (count % 3 == 0) {
-                row = new HorizontalLayout();
-                row.setWidthFull();
-                row.setSpacing(true);
-                row.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
-                eventsContainer.add(row);
+    private void loadMoreSearchResults() {
+        try {
+            searchPage++;
+            appendSearchResults(searchQuery.apply(searchPage));
+        } catch (Exception e) {
+            searchPage--;
+            Paragraph error = new Paragraph("Erreur lors du chargement: " + e.getMessage());
+            error.getStyle().set("color", "red").set("text-align", "center");
+            eventsContainer.add(error);
+        }
+    }
+
+    /**
+     * Ajoute une page de résultats (lignes de 3 cartes, la dernière ligne incomplète est complétée)
+     */
+    private void appendSearchResults(Page<Event> results) {
+        loadMoreButton.removeFromParent();
+
+        for (Event event : results.getContent()) {
+            if (searchDisplayed % 3 == 0) {
+                searchRow = new HorizontalLayout();
+                searchRow.setWidthFull();
+                searchRow.setSpacing(true);
+                searchRow.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
+                eventsContainer.add(searchRow);
             }
 
-            row.add(createEventCard(event));
-            count++;
+            searchRow.add(createEventCard(event));
+            searchDisplayed++;
+        }
+
+        if (results.hasNext()) {
+            loadMoreButton.setText("Afficher plus (" + (results.getTotalElements() - searchDisplayed) + " restant(s))");
+            eventsContainer.add(loadMoreButton);
+            eventsContainer.setHorizontalComponentAlignment(FlexComponent.Alignment.CENTER, loadMoreButton);
         }
     }
 }
\ No newline at end of file
@@ -1,23 +1,45 @@
 package org.example.reservation_event.utils;
 
 import com.vaadin.flow.component.html.Image;
-import com.vaadin.flow.server.StreamResource;
+import org.example.reservation_event.images.ImageController;
+import org.example.reservation_event.images.ImageStore;
+import org.example.reservation_event.images.ImageVariant;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 
 public class ImageUtils {
 
-    // Chemin relatif au projet au lieu d'un chemin absolu fixe
-    private static final String UPLOAD_RELATIVE_PATH = "src/main/java/org/example/reservation_event/uploads/";
+    // Anciennes images (nom de fichier dans Event.imageUrl), relatif au répertoire du projet ;
+    // les nouvelles sont dans ImageStore
+    public static final String LEGACY_UPLOAD_PATH = "src/main/java/org/example/reservation_event/uploads/";
+
+    // URL des anciennes images, servies en statique par StaticResourceConfig
+    public static final String LEGACY_URL_PATH = "uploads/events";
+
+    // Store des images adressées par contenu, enregistré au démarrage par ImageStore
+    private static volatile ImageStore imageStore;
+
+    public static void setImageStore(ImageStore store) {
+        imageStore = store;
+    }
 
     public static Image createEventImage(String imageUrl) {
+        return createEventImage(imageUrl, ImageVariant.CARD);
+    }
+
+    /**
+     * Image d'événement dans la taille pré-générée adaptée à l'affichage (carte, fiche, bannière)
+     */
+    public static Image createEventImage(String imageUrl, ImageVariant variant) {
         if (imageUrl == null || imageUrl.trim().isEmpty()) {
             return createPlaceholderImage();
         }
+        if (ImageStore.isContentKey(imageUrl)) {
+            return createStoredImage(imageUrl, variant);
+        }
 
         try {
             // Extraire le nom de fichier de l'URL
@@ -25,38 +47,14 @@ public class ImageUtils {
 
             // Obtenir le chemin absolu basé sur le répertoire du projet
             String projectDir = System.getProperty("user.dir");
-            String uploadDir = Paths.get(projectDir, UPLOAD_RELATIVE_PATH).toString();
+            String uploadDir = Paths.get(projectDir, LEGACY_UPLOAD_PATH).toString();
 
             File imageFile = new File(uploadDir, fileName);
 
-            // Debug: afficher les chemins pour vérification
-            System.out.println("Project directory: " + projectDir);
-            System.out.println("Upload directory: " + uploadDir);
-            System.out.println("Image file path: " + imageFile.getAbsolutePath());
-            System.out.println("File exists: " + imageFile.exists());
-            System.out.println("Can read: " + imageFile.canRead());
-
             if (imageFile.exists() && imageFile.canRead()) {
-                StreamResource resource = new StreamResource(
-                        fileName,
-                        () -> {
-                            try {
-                                return new FileInputStream(imageFile);
-                            } catch (FileNotFoundException e) {
-                                System.err.println("File not found during stream: " + imageFile.getAbsolutePath());
-                                return new ByteArrayInputStream(new byte[0]);
-                            }
-                        }
-                );
-
-                Image image = new Image(resource, "Event Image");
-                image.setWidthFull();
-                image.setHeight("200px");
-                image.getStyle()
-                        .set("object-fit", "cover")
-                        .set("border-radius", "8px")
-                        .set("background-color", "#f8fafc");
-                return image;
+                // URL statique mise en cache par le navigateur (pas de ressource Vaadin par vue)
+                String url = LEGACY_URL_PATH + "/" + URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
+                return styleEventImage(new Image(url, "Event Image"));
             } else {
                 System.err.println("Image file not found or not readable: " + imageFile.getAbsolutePath());
                 return createErrorImage("Image non disponible");
@@ -77,6 +75,15 @@ public class ImageUtils {
         return image;
     }
 
+    // Méthode avec taille d'image et hauteur d'affichage
+    public static Image createEventImage(String imageUrl, ImageVariant variant, String height) {
+        Image image = createEventImage(imageUrl, variant);
+        if (height != null && !height.isEmpty()) {
+            image.setHeight(height);
+        }
+        return image;
+    }
+
     // Méthode avec hauteur et largeur personnalisables
     public static Image createEventImage(String imageUrl, String width, String height) {
         Image image = createEventImage(imageUrl);
@@ -89,6 +96,25 @@ public class ImageUtils {
         return image;
     }
 
+    private static Image createStoredImage(String key, ImageVariant variant) {
+        ImageStore store = imageStore;
+        if (store == null || store.resolve(key, variant) == null) {
+            return createErrorImage("Image non disponible");
+        }
+        // URL immuable servie par ImageController, cachée par le navigateur entre les vues
+        return styleEventImage(new Image(ImageController.urlOf(key, variant), "Event Image"));
+    }
+
+    private static Image styleEventImage(Image image) {
+        image.setWidthFull();
+        image.setHeight("200px");
+        image.getStyle()
+                .set("object-fit", "cover")
+                .set("border-radius", "8px")
+                .set("background-color", "#f8fafc");
+        return image;
+    }
+
     private static String extractFileName(String imageUrl) {
         if (imageUrl == null) return "";
 
@@ -147,11 +173,15 @@ public class ImageUtils {
         if (imageUrl == null || imageUrl.trim().isEmpty()) {
             return false;
         }
+        if (ImageStore.isContentKey(imageUrl)) {
+            ImageStore store = imageStore;
+            return store != null && store.resolve(imageUrl, ImageVariant.CARD) != null;
+        }
 
         try {
             String fileName = extractFileName(imageUrl);
             String projectDir = System.getProperty("user.dir");
-            String uploadDir = Paths.get(projectDir, UPLOAD_RELATIVE_PATH).toString();
+            String uploadDir = Paths.get(projectDir, LEGACY_UPLOAD_PATH).toString();
             File imageFile = new File(uploadDir, fileName);
 
             return imageFile.exists() && imageFile.canRead();
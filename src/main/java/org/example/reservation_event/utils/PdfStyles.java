@@ -0,0 +1,82 @@
+package org.example.reservation_event.utils;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import org.example.reservation_event.Enums.ReservationStatut;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Polices et couleurs partagées par les générateurs PDF (billets, exports).
+ *
+ * Les FontProgram (métriques des polices) et les couleurs sont immuables une fois créés :
+ * ils sont chargés une seule fois et partagés entre tous les threads. Un PdfFont, lui,
+ * est lié au document qui l'utilise et doit être recréé pour chaque PDF via bold()/regular().
+ */
+public final class PdfStyles {
+
+    // Couleurs
+    public static final DeviceRgb PRIMARY = new DeviceRgb(79, 70, 229);      // #4f46e5
+    public static final DeviceRgb DARK = new DeviceRgb(30, 41, 59);          // #1e293b
+    public static final DeviceRgb GRAY = new DeviceRgb(100, 116, 139);       // #64748b
+    public static final DeviceRgb BORDER = new DeviceRgb(226, 232, 240);     // #e2e8f0
+    public static final DeviceRgb LIGHT_BG = new DeviceRgb(248, 250, 252);   // #f8fafc
+    public static final DeviceRgb SUCCESS = new DeviceRgb(5, 150, 105);      // #059669
+    public static final DeviceRgb WARNING = new DeviceRgb(245, 158, 11);     // #f59e0b
+    public static final DeviceRgb DANGER = new DeviceRgb(220, 38, 38);       // #dc2626
+    public static final DeviceRgb DANGER_LIGHT = new DeviceRgb(239, 68, 68); // #ef4444
+    public static final DeviceRgb VIOLET = new DeviceRgb(139, 92, 246);      // #8b5cf6
+    public static final DeviceRgb NEUTRAL = new DeviceRgb(107, 114, 128);    // #6b7280
+
+    private static final Map<ReservationStatut, DeviceRgb> STATUS_COLORS = new EnumMap<>(ReservationStatut.class);
+
+    static {
+        STATUS_COLORS.put(ReservationStatut.CONFIRMEE, SUCCESS);
+        STATUS_COLORS.put(ReservationStatut.EN_ATTENTE, WARNING);
+        STATUS_COLORS.put(ReservationStatut.ANNULEE, DANGER);
+    }
+
+    // Polices standard (Helvetica) chargées une seule fois
+    private static final FontProgram BOLD_PROGRAM = loadProgram(StandardFonts.HELVETICA_BOLD);
+    private static final FontProgram REGULAR_PROGRAM = loadProgram(StandardFonts.HELVETICA);
+
+    private PdfStyles() {
+    }
+
+    /**
+     * Police Helvetica grasse pour un nouveau document
+     */
+    public static PdfFont bold() {
+        return PdfFontFactory.createFont(BOLD_PROGRAM, PdfEncodings.WINANSI);
+    }
+
+    /**
+     * Police Helvetica normale pour un nouveau document
+     */
+    public static PdfFont regular() {
+        return PdfFontFactory.createFont(REGULAR_PROGRAM, PdfEncodings.WINANSI);
+    }
+
+    /**
+     * Couleur du badge associée à un statut de réservation
+     */
+    public static DeviceRgb statusColor(ReservationStatut statut) {
+        return statut != null ? STATUS_COLORS.getOrDefault(statut, NEUTRAL) : NEUTRAL;
+    }
+
+    private static FontProgram loadProgram(String name) {
+        try {
+            return FontProgramFactory.createFont(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Police PDF introuvable: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import org.example.reservation_event.Enums.EmailOutboxStatut;
+import org.example.reservation_event.Enums.EmailOutboxType;
+import org.example.reservation_event.classes.EmailOutbox;
+import org.example.reservation_event.repositories.EmailOutboxRepository;
+import org.example.reservation_event.services.EmailOutboxService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(EmailOutboxServiceImpl.class)
+class EmailOutboxServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void anEmailIsClaimedOnlyOnceWhileItsLeaseRuns() {
+        Long id = persistDueEmail();
+
+        List<EmailOutbox> first = emailOutboxService.claimDue(10);
+        entityManager.clear();
+        List<EmailOutbox> second = emailOutboxService.claimDue(10);
+
+        assertEquals(1, first.size());
+        assertEquals(id, first.get(0).getId());
+        assertTrue(second.isEmpty());
+
+        EmailOutbox entry = entityManager.find(EmailOutbox.class, id);
+        assertEquals(EmailOutboxStatut.EN_COURS, entry.getStatut());
+        assertEquals(1, entry.getTentatives());
+        assertTrue(entry.getProchaineTentative().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void twoWorkersRacingForTheSameEmailClaimItOnce() {
+        Long id = persistDueEmail();
+        LocalDateTime now = LocalDateTime.now();
+        EnumSet<EmailOutboxStatut> eligibles = EnumSet.of(EmailOutboxStatut.EN_ATTENTE, EmailOutboxStatut.EN_COURS);
+
+        // Les deux workers ont lu le même id dans findDueIds avant de le prendre
+        int first = emailOutboxRepository.claim(id, EmailOutboxStatut.EN_COURS, eligibles, now, now.plusMinutes(5));
+        int second = emailOutboxRepository.claim(id, EmailOutboxStatut.EN_COURS, eligibles, now, now.plusMinutes(5));
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+    }
+
+    @Test
+    void anExpiredLeaseMakesTheEmailClaimableAgain() {
+        Long id = persistDueEmail();
+        emailOutboxService.claimDue(10);
+        entityManager.clear();
+
+        // Worker arrêté pendant l'envoi : ni markSent ni markFailed, le bail expire
+        makeDue(id);
+        List<EmailOutbox> reclaimed = emailOutboxService.claimDue(10);
+        entityManager.clear();
+
+        assertEquals(1, reclaimed.size());
+        EmailOutbox entry = entityManager.find(EmailOutbox.class, id);
+        assertEquals(EmailOutboxStatut.EN_COURS, entry.getStatut());
+        assertEquals(2, entry.getTentatives());
+    }
+
+    @Test
+    void anEmailIsAbandonedAfterMaxTentatives() {
+        Long id = persistDueEmail();
+
+        for (int tentative = 1; tentative <= EmailOutboxServiceImpl.MAX_TENTATIVES; tentative++) {
+            makeDue(id);
+            assertEquals(1, emailOutboxService.claimDue(10).size());
+            entityManager.clear();
+            emailOutboxService.markFailed(id, "SMTP indisponible");
+            entityManager.flush();
+            entityManager.clear();
+
+            EmailOutbox entry = entityManager.find(EmailOutbox.class, id);
+            EmailOutboxStatut attendu = tentative < EmailOutboxServiceImpl.MAX_TENTATIVES
+                    ? EmailOutboxStatut.EN_ATTENTE : EmailOutboxStatut.ECHEC;
+            assertEquals(attendu, entry.getStatut());
+            entityManager.clear();
+        }
+
+        makeDue(id);
+        assertTrue(emailOutboxService.claimDue(10).isEmpty());
+        assertEquals("SMTP indisponible", entityManager.find(EmailOutbox.class, id).getDerniereErreur());
+    }
+
+    private Long persistDueEmail() {
+        EmailOutbox entry = entityManager.persist(EmailOutbox.builder()
+                .type(EmailOutboxType.RESERVATION_CONFIRMATION)
+                .reservationId(1L)
+                .prochaineTentative(LocalDateTime.now().minusSeconds(1))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        return entry.getId();
+    }
+
+    // Avance l'horloge de l'email (bail ou backoff écoulé) sans attendre
+    private void makeDue(Long id) {
+        entityManager.getEntityManager()
+                .createQuery("UPDATE EmailOutbox o SET o.prochaineTentative = :now WHERE o.id = :id")
+                .setParameter("now", LocalDateTime.now().minusSeconds(1))
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+    }
+}
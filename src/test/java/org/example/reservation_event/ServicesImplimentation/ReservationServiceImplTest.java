@@ -0,0 +1,299 @@
+package org.example.reservation_event.ServicesImplimentation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.Enums.EventStatut;
+import org.example.reservation_event.Enums.ReservationStatut;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.dtos.ReservationSummaryDTO;
+import org.example.reservation_event.mappers.ReservationMapper;
+import org.example.reservation_event.Exceptions.BusinessException;
+import org.example.reservation_event.Exceptions.ConflictException;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.example.reservation_event.repositories.EventRepository;
+import org.example.reservation_event.repositories.ReservationRepository;
+import org.example.reservation_event.repositories.RevenueMonthlyRepository;
+import org.example.reservation_event.services.ReservationService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ReservationServiceImpl.class, ReservationMapper.class, RevenueRollupServiceImpl.class,
+        EmailOutboxServiceImpl.class, OperationMetrics.class, SimpleMeterRegistry.class})
+class ReservationServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RevenueMonthlyRepository revenueMonthlyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void getReservationsByUserAsDTOIssuesASingleStatement() {
+        User organisateur = entityManager.persist(newUser("orga@test.ma", UserRole.ORGANIZER));
+        User client = entityManager.persist(newUser("client@test.ma", UserRole.CLIENT));
+
+        Event event = entityManager.persist(Event.builder()
+                .titre("Concert de test")
+                .categorie(EventCategorie.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(10))
+                .dateFin(LocalDateTime.now().plusDays(10).plusHours(2))
+                .lieu("Salle principale")
+                .ville("Rabat")
+                .capaciteMax(1000)
+                .prixUnitaire(50.0)
+                .organisateur(organisateur)
+                .statut(EventStatut.PUBLIE)
+                .build());
+
+        for (int i = 0; i < 200; i++) {
+            Reservation reservation = Reservation.builder()
+                    .utilisateur(client)
+                    .evenement(event)
+                    .nombrePlaces(1)
+                    .codeReservation(String.format("TST-%05d", i))
+                    .build();
+            reservation.calculerMontantTotal();
+            entityManager.persist(reservation);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        List<ReservationSummaryDTO> reservations = reservationService.getReservationsByUserAsDTO(client);
+
+        assertEquals(200, reservations.size());
+        assertTrue(reservations.stream().allMatch(r -> r.getEvenementStatut() == EventStatut.PUBLIE));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Réservations concurrentes sur un événement presque complet : le compteur seatsReserved
+     * ne dépasse jamais la capacité et les réservations refusées échouent en ConflictException.
+     * Hors transaction de test pour que chaque appel commite dans sa propre transaction.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int capacity = 10;
+        int clients = 16;
+
+        Event event = tx.execute(status -> {
+            User organisateur = entityManager.persist(newUser("orga-concurrent@test.ma", UserRole.ORGANIZER));
+            return entityManager.persist(newEvent("Concert complet", capacity, organisateur));
+        });
+        List<User> users = tx.execute(status -> {
+            List<User> created = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                created.add(entityManager.persist(newUser("client-concurrent" + i + "@test.ma", UserRole.CLIENT)));
+            }
+            return created;
+        });
+
+        List<Boolean> results = runConcurrently(clients, i -> {
+            try {
+                reservationService.createReservation(event, users.get(i), 1, null);
+                return true;
+            } catch (ConflictException e) {
+                return false;
+            }
+        });
+
+        assertEquals(capacity, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(capacity, eventRepository.findById(event.getId()).orElseThrow().getPlacesReservees());
+        assertEquals(capacity, reservationRepository.findByEvenementId(event.getId()).size());
+    }
+
+    /**
+     * Annulations concurrentes d'une même réservation : une seule libère les places
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentCancellationsReleaseSeatsOnce() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User organisateur = tx.execute(status ->
+                entityManager.persist(newUser("orga-annulation@test.ma", UserRole.ORGANIZER)));
+        User client = tx.execute(status ->
+                entityManager.persist(newUser("client-annulation@test.ma", UserRole.CLIENT)));
+        Event event = tx.execute(status -> entityManager.persist(newEvent("Concert annulé", 10, organisateur)));
+
+        Long first = reservationService.createReservation(event, client, 3, null).getId();
+        reservationService.createReservation(event, client, 2, null);
+
+        List<Boolean> results = runConcurrently(8, i -> reservationService.cancelReservation(first));
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(2, eventRepository.findById(event.getId()).orElseThrow().getPlacesReservees());
+        assertEquals(ReservationStatut.ANNULEE, reservationRepository.findById(first).orElseThrow().getStatut());
+    }
+
+    /**
+     * Le client annule pendant que l'organisateur a encore la réservation EN_ATTENTE dans sa grille :
+     * la confirmation est refusée, la réservation reste annulée et ni places ni revenu ne sont comptés
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void confirmAfterConcurrentCancelIsRejected() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User organisateur = tx.execute(status ->
+                entityManager.persist(newUser("orga-confirmation@test.ma", UserRole.ORGANIZER)));
+        User client = tx.execute(status ->
+                entityManager.persist(newUser("client-confirmation@test.ma", UserRole.CLIENT)));
+        Event event = tx.execute(status -> entityManager.persist(newEvent("Concert confirmé", 10, organisateur)));
+
+        Reservation gridEntity = reservationService.createReservation(event, client, 3, null);
+        double revenueBefore = revenueMonthlyRepository.sumRevenue();
+
+        assertTrue(reservationService.cancelReservation(gridEntity.getId()));
+        assertThrows(BusinessException.class, () -> reservationService.confirmReservation(gridEntity));
+
+        assertEquals(ReservationStatut.ANNULEE, reservationRepository.findById(gridEntity.getId()).orElseThrow().getStatut());
+        assertEquals(0, eventRepository.findById(event.getId()).orElseThrow().getPlacesReservees());
+        assertEquals(revenueBefore, revenueMonthlyRepository.sumRevenue(), 0.001);
+    }
+
+    /**
+     * Annulation et confirmation simultanées : un seul changement de statut gagne, et le compteur
+     * de places reste cohérent avec le statut final
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentCancelAndConfirmKeepSeatsConsistent() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User organisateur = tx.execute(status ->
+                entityManager.persist(newUser("orga-course@test.ma", UserRole.ORGANIZER)));
+        User client = tx.execute(status ->
+                entityManager.persist(newUser("client-course@test.ma", UserRole.CLIENT)));
+        Event event = tx.execute(status -> entityManager.persist(newEvent("Concert disputé", 10, organisateur)));
+
+        Reservation gridEntity = reservationService.createReservation(event, client, 3, null);
+        double revenueBefore = revenueMonthlyRepository.sumRevenue();
+
+        List<Boolean> results = runConcurrently(2, i -> {
+            if (i == 0) {
+                return reservationService.cancelReservation(gridEntity.getId());
+            }
+            try {
+                reservationService.confirmReservation(gridEntity);
+                return true;
+            } catch (BusinessException e) {
+                return false;
+            }
+        });
+
+        ReservationStatut statut = reservationRepository.findById(gridEntity.getId()).orElseThrow().getStatut();
+        int places = eventRepository.findById(event.getId()).orElseThrow().getPlacesReservees();
+        // Annulation lue EN_ATTENTE puis devancée par la confirmation : elle échoue, la réservation reste confirmée
+        assertTrue(results.get(0) || results.get(1));
+        assertEquals(statut == ReservationStatut.CONFIRMEE, !results.get(0));
+        assertEquals(statut == ReservationStatut.ANNULEE ? 0 : 3, places);
+        assertEquals(statut == ReservationStatut.CONFIRMEE ? 150.0 : 0.0,
+                revenueMonthlyRepository.sumRevenue() - revenueBefore, 0.001);
+    }
+
+    /**
+     * Lance les tâches en même temps (départ commun) et retourne leurs résultats dans l'ordre
+     */
+    private <T> List<T> runConcurrently(int threads, IndexedTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Appel concurrent en échec", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask<T> {
+        T run(int index) throws Exception;
+    }
+
+    private Event newEvent(String titre, int capacite, User organisateur) {
+        return Event.builder()
+                .titre(titre)
+                .categorie(EventCategorie.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(10))
+                .dateFin(LocalDateTime.now().plusDays(10).plusHours(2))
+                .lieu("Salle principale")
+                .ville("Rabat")
+                .capaciteMax(capacite)
+                .prixUnitaire(50.0)
+                .organisateur(organisateur)
+                .statut(EventStatut.PUBLIE)
+                .build();
+    }
+
+    private User newUser(String email, UserRole role) {
+        return User.builder()
+                .nom("Test")
+                .prenom("Utilisateur")
+                .email(email)
+                .password("motdepasse123")
+                .role(role)
+                .build();
+    }
+}
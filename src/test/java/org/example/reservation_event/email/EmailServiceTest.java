@@ -0,0 +1,81 @@
+package org.example.reservation_event.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.reservation_event.Enums.EventCategorie;
+import org.example.reservation_event.Enums.UserRole;
+import org.example.reservation_event.classes.Event;
+import org.example.reservation_event.classes.Reservation;
+import org.example.reservation_event.classes.User;
+import org.example.reservation_event.monitoring.OperationMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        EmailTemplateEngine templateEngine =
+                new EmailTemplateEngine(new DefaultResourceLoader(), "classpath:email-templates/");
+        templateEngine.compileTemplates();
+        emailService = new EmailService(mailSender, new OperationMetrics(new SimpleMeterRegistry()), templateEngine);
+    }
+
+    @Test
+    void sendEventRemindersDeliversTheWholeBatch() throws Exception {
+        User organisateur = User.builder().nom("Orga").prenom("Test").email("orga@test.ma")
+                .role(UserRole.ORGANIZER).build();
+        Event event = Event.builder()
+                .titre("Concert de test")
+                .categorie(EventCategorie.CONCERT)
+                .dateDebut(LocalDateTime.now().plusDays(1))
+                .dateFin(LocalDateTime.now().plusDays(1).plusHours(2))
+                .lieu("Salle")
+                .ville("Rabat")
+                .capaciteMax(100)
+                .prixUnitaire(50.0)
+                .organisateur(organisateur)
+                .build();
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (long i = 1; i <= 30; i++) {
+            User client = User.builder().nom("Client").prenom("N" + i).email("client" + i + "@test.ma")
+                    .role(UserRole.CLIENT).build();
+            reservations.add(Reservation.builder()
+                    .id(i)
+                    .evenement(event)
+                    .utilisateur(client)
+                    .nombrePlaces(1)
+                    .montantTotal(50.0)
+                    .codeReservation(String.format("TST-%05d", i))
+                    .build());
+        }
+
+        Set<Long> failed = emailService.sendEventReminders(reservations);
+
+        assertTrue(failed.isEmpty(), "Rappels en échec : " + failed);
+        assertEquals(30, greenMail.getReceivedMessages().length);
+        assertTrue(greenMail.getReceivedMessages()[0].getContentType().startsWith("multipart/"),
+                "Le rappel doit contenir les versions texte et HTML");
+    }
+}